@@ -0,0 +1,148 @@
+package doc;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Batch mail-merge over a shared template.
+ * The template file is read and compiled once ({@link DocTemplate}); each record gets its own copy
+ * parsed from the in-memory bytes, filled in a single pass and written on a worker pool.
+ * At most {@code maxInFlight} documents are open at the same time, so memory stays flat
+ * regardless of the batch size.
+ *
+ * @param <R> Record type
+ */
+public class DocBatchMerger<R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocBatchMerger.class);
+
+    private final byte[] template;
+    private final DocTemplate compiled;
+    private final Function<? super R, Map<String, String>> values;
+    private final Function<? super R, Path> output;
+    private BiConsumer<XWPFDocument, ? super R> customizer = (doc, record) -> { };
+
+    /**
+     * @param templateFile the .docx template, read once
+     * @param values       placeholder (e.g. "$DATE$") -> value for a record
+     * @param output       output file of a record
+     */
+    public DocBatchMerger(Path templateFile, Function<? super R, Map<String, String>> values,
+                          Function<? super R, Path> output) throws IOException {
+        this.template = Files.readAllBytes(templateFile);
+        try (XWPFDocument doc = parse()) {
+            this.compiled = DocTemplate.compile(doc);
+        }
+        this.values = values;
+        this.output = output;
+        logger.info("Template {} compiled, placeholders: {}", templateFile, compiled.getPlaceholders());
+    }
+
+    /**
+     * Sets an extra step run on each filled document before writing,
+     * e.g. to expand list sections with {@link UtilDoc#duplicateAndReplaceTextList}.
+     */
+    public DocBatchMerger<R> customizer(BiConsumer<XWPFDocument, ? super R> customizer) {
+        this.customizer = customizer;
+        return this;
+    }
+
+    /**
+     * Merges a single record on the calling thread.
+     *
+     * @param record the record
+     * @param out    destination, not closed
+     */
+    public void merge(R record, OutputStream out) throws IOException {
+        try (XWPFDocument doc = parse()) {
+            compiled.fill(doc, values.apply(record));
+            customizer.accept(doc, record);
+            doc.write(out);
+        }
+    }
+
+    /**
+     * Merges all records in parallel.
+     *
+     * @param records     records to merge
+     * @param threads     number of writer threads
+     * @param maxInFlight maximum number of documents open at the same time
+     * @return the batch outcome
+     */
+    public BatchResult mergeAll(Iterator<? extends R> records, int threads, int maxInFlight) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Semaphore permits = new Semaphore(Math.max(maxInFlight, 1));
+        AtomicLong written = new AtomicLong();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        try {
+            while (records.hasNext()) {
+                R record = records.next();
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        // Resolved inside the try: a failing mapper must still release its permit
+                        Path file = null;
+                        try {
+                            file = output.apply(record);
+                            try (OutputStream out = Files.newOutputStream(file)) {
+                                merge(record, out);
+                            }
+                            written.incrementAndGet();
+                        } catch (IOException | RuntimeException e) {
+                            Object target = file != null ? file : "output of " + record;
+                            logger.error("Failed to merge document {}", target, e);
+                            failures.add(target + ": " + e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        BatchResult result = new BatchResult(written.get(), List.copyOf(failures), System.currentTimeMillis() - start);
+        logger.info("{}, {}", result, UtilDoc.getImageCache());
+        return result;
+    }
+
+    private XWPFDocument parse() throws IOException {
+        return new XWPFDocument(new ByteArrayInputStream(template));
+    }
+
+    /**
+     * Outcome of a batch: documents written, failure messages and elapsed time.
+     */
+    public record BatchResult(long written, List<String> failures, long elapsedMillis) {
+        @Override
+        public String toString() {
+            double perSecond = elapsedMillis > 0 ? written * 1000d / elapsedMillis : written;
+            return "Merged " + written + " documents (" + failures.size() + " failed) in " + elapsedMillis
+                    + " ms, " + String.format("%.1f", perSecond) + " docs/s";
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package doc;
+
+import org.apache.poi.xwpf.usermodel.BodyElementType;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled .docx template.
+ * The document is scanned once, in the same order as {@link UtilDoc#replacePOI} (headers, body, footers,
+ * nested tables), and every placeholder is indexed by paragraph ordinal and run/character span,
+ * including placeholders split across runs. Filling then rewrites only the indexed runs in a single pass,
+ * instead of one full traversal per placeholder.
+ * A compiled template can fill the document it was compiled from or any structurally identical copy of it.
+ */
+public final class DocTemplate {
+
+    /**
+     * Default placeholder syntax: {@code $NAME$}.
+     */
+    public static final Pattern DEFAULT_PLACEHOLDER = Pattern.compile("\\$[^$\\s]+\\$");
+
+    private final int paragraphCount;
+    private final Map<Integer, List<Segment>> segments;
+    private final Set<String> placeholders;
+
+    private DocTemplate(int paragraphCount, Map<Integer, List<Segment>> segments, Set<String> placeholders) {
+        this.paragraphCount = paragraphCount;
+        this.segments = segments;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compiles a template with the default {@code $NAME$} placeholder syntax.
+     *
+     * @param doc the template document
+     * @return the compiled template
+     */
+    public static DocTemplate compile(XWPFDocument doc) {
+        return compile(doc, DEFAULT_PLACEHOLDER);
+    }
+
+    /**
+     * Compiles a template.
+     *
+     * @param doc         the template document
+     * @param placeholder pattern matching a whole placeholder, delimiters included
+     * @return the compiled template
+     */
+    public static DocTemplate compile(XWPFDocument doc, Pattern placeholder) {
+        List<XWPFParagraph> paragraphs = collectParagraphs(doc);
+        Map<Integer, List<Segment>> segments = new LinkedHashMap<>();
+        Set<String> names = new LinkedHashSet<>();
+
+        for (int p = 0; p < paragraphs.size(); p++) {
+            List<XWPFRun> runs = paragraphs.get(p).getRuns();
+            if (runs == null || runs.isEmpty()) continue;
+
+            // Concatenate the run texts, remembering where each run starts
+            StringBuilder text = new StringBuilder();
+            int[] runStart = new int[runs.size() + 1];
+            for (int r = 0; r < runs.size(); r++) {
+                runStart[r] = text.length();
+                String runText = runs.get(r).getText(0);
+                if (runText != null) text.append(runText);
+            }
+            runStart[runs.size()] = text.length();
+
+            Matcher matcher = placeholder.matcher(text);
+            List<Segment> found = new ArrayList<>();
+            while (matcher.find()) {
+                int beginRun = runAt(runStart, matcher.start());
+                int endRun = runAt(runStart, matcher.end() - 1);
+                found.add(new Segment(matcher.group(),
+                        beginRun, matcher.start() - runStart[beginRun],
+                        endRun, matcher.end() - runStart[endRun]));
+                names.add(matcher.group());
+            }
+            if (!found.isEmpty()) {
+                // Reverse order: later spans are rewritten first, so earlier offsets stay valid
+                Collections.reverse(found);
+                segments.put(p, List.copyOf(found));
+            }
+        }
+        return new DocTemplate(paragraphs.size(), Collections.unmodifiableMap(segments),
+                Collections.unmodifiableSet(names));
+    }
+
+    /**
+     * Replaces all placeholders in a single pass.
+     * Placeholders without a value are left untouched.
+     *
+     * @param doc    the compiled document or a structurally identical copy
+     * @param values placeholder (delimiters included, e.g. "$DATE$") -> replacement text
+     * @return the filled document
+     */
+    public XWPFDocument fill(XWPFDocument doc, Map<String, String> values) {
+        if (segments.isEmpty()) return doc;
+
+        List<XWPFParagraph> paragraphs = collectParagraphs(doc);
+        if (paragraphs.size() != paragraphCount) {
+            throw new IllegalArgumentException("Document does not match the compiled template: "
+                    + paragraphs.size() + " paragraphs instead of " + paragraphCount);
+        }
+
+        segments.forEach((index, list) -> {
+            List<XWPFRun> runs = paragraphs.get(index).getRuns();
+            for (Segment segment : list) {
+                String value = values.get(segment.placeholder);
+                if (value != null) {
+                    segment.apply(runs, value);
+                }
+            }
+        });
+        return doc;
+    }
+
+    /**
+     * Gets the distinct placeholders found in the template, in document order.
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    private static int runAt(int[] runStart, int position) {
+        int run = 0;
+        while (run + 1 < runStart.length - 1 && runStart[run + 1] <= position) {
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Collects the paragraphs of headers, body and footers, descending into tables.
+     */
+    static List<XWPFParagraph> collectParagraphs(XWPFDocument doc) {
+        List<XWPFParagraph> paragraphs = new ArrayList<>();
+        for (XWPFHeader header : doc.getHeaderList()) {
+            collectParagraphs(header.getBodyElements(), paragraphs);
+        }
+        collectParagraphs(doc.getBodyElements(), paragraphs);
+        for (XWPFFooter footer : doc.getFooterList()) {
+            collectParagraphs(footer.getBodyElements(), paragraphs);
+        }
+        return paragraphs;
+    }
+
+    private static void collectParagraphs(List<IBodyElement> bodyElements, List<XWPFParagraph> paragraphs) {
+        for (IBodyElement bodyElement : bodyElements) {
+            if (bodyElement.getElementType() == BodyElementType.PARAGRAPH) {
+                paragraphs.add((XWPFParagraph) bodyElement);
+            } else if (bodyElement.getElementType() == BodyElementType.TABLE) {
+                for (XWPFTableRow row : ((XWPFTable) bodyElement).getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        collectParagraphs(cell.getBodyElements(), paragraphs);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Location of one placeholder: from (beginRun, beginOffset) included to (endRun, endOffset) excluded.
+     */
+    private record Segment(String placeholder, int beginRun, int beginOffset, int endRun, int endOffset) {
+
+        void apply(List<XWPFRun> runs, String value) {
+            XWPFRun first = runs.get(beginRun);
+            String firstText = textOf(first);
+            if (beginRun == endRun) {
+                first.setText(firstText.substring(0, beginOffset) + value + firstText.substring(endOffset), 0);
+                return;
+            }
+            // Placeholder spans multiple runs: value goes in the first run, keeping its formatting
+            first.setText(firstText.substring(0, beginOffset) + value, 0);
+            for (int r = beginRun + 1; r < endRun; r++) {
+                runs.get(r).setText("", 0);
+            }
+            XWPFRun last = runs.get(endRun);
+            last.setText(textOf(last).substring(endOffset), 0);
+        }
+
+        private static String textOf(XWPFRun run) {
+            String text = run.getText(0);
+            return text != null ? text : "";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package doc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of image file contents, bounded by the total number of cached bytes.
+ * Entries are keyed by normalized path and invalidated when the file's modification time or size changes,
+ * so the same logo/signature embedded into many documents is read from disk only once.
+ */
+public class ImageCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxBytes maximum total size of the cached images
+     */
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the bytes of an image file, reading it only on a cache miss.
+     * Callers must not modify the returned array.
+     *
+     * @param fileLocation path to the image file
+     * @return the image bytes
+     */
+    public byte[] get(String fileLocation) throws IOException {
+        Path path = Paths.get(fileLocation).toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(path);
+        long size = Files.size(path);
+
+        synchronized (this) {
+            Entry entry = entries.get(path);
+            if (entry != null && entry.modified.equals(modified) && entry.data.length == size) {
+                hits++;
+                return entry.data;
+            }
+        }
+
+        byte[] data = Files.readAllBytes(path);
+        synchronized (this) {
+            misses++;
+            Entry previous = entries.put(path, new Entry(data, modified));
+            if (previous != null) {
+                totalBytes -= previous.data.length;
+            }
+            totalBytes += data.length;
+            evict();
+        }
+        return data;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Path, Entry>> it = entries.entrySet().iterator();
+        // Keep at least the most recent entry, even if larger than the limit
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            totalBytes -= it.next().getValue().data.length;
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache [images=" + entries.size() + ", bytes=" + totalBytes
+                + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    private record Entry(byte[] data, FileTime modified) {
+    }
+}
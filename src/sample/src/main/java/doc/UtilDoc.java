@@ -14,8 +14,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for creating and manipulating Word documents (.docx) using Apache POI.
@@ -28,6 +31,8 @@ public abstract class UtilDoc {
     private static final int DEFAULT_SPACING_AFTER = 10;
     private static final int DEFAULT_FONT_SIZE = 11;
     private static final int MAX_VALID_FONT_SIZE = 30000;
+    private static final long IMAGE_CACHE_BYTES = 32L * 1024 * 1024;
+    private static final ImageCache imageCache = new ImageCache(IMAGE_CACHE_BYTES);
 
     /**
      * Creates a new blank Word document and prepares output stream.
@@ -85,8 +90,16 @@ public abstract class UtilDoc {
         }
     }
 
+    /**
+     * Gets the shared cache of image files used by {@link #addImgFile} and {@link #addImgFileAndPar}.
+     */
+    public static ImageCache getImageCache() {
+        return imageCache;
+    }
+
     /**
      * Adds an image to a run.
+     * The file is read through the image cache; POI stores identical picture data only once per document.
      *
      * @param fileLocation path to the image file
      * @param run          the run to add the image to
@@ -95,14 +108,14 @@ public abstract class UtilDoc {
      */
     public static void addImgFile(String fileLocation, XWPFRun run, int width, int height)
             throws InvalidFormatException, IOException {
-        try (FileInputStream is = new FileInputStream(fileLocation)) {
-            run.addBreak();
-            run.addPicture(is, XWPFDocument.PICTURE_TYPE_JPEG, fileLocation, Units.toEMU(width), Units.toEMU(height));
-        }
+        byte[] image = readCachedImage(fileLocation);
+        run.addBreak();
+        addPicture(run, image, fileLocation, width, height);
     }
 
     /**
      * Adds an image to a paragraph.
+     * The file is read through the image cache; POI stores identical picture data only once per document.
      *
      * @param par          the paragraph to add the image to
      * @param fileLocation path to the image file
@@ -111,9 +124,30 @@ public abstract class UtilDoc {
      */
     public static void addImgFileAndPar(XWPFParagraph par, String fileLocation, int width, int height)
             throws InvalidFormatException, IOException {
+        byte[] image = readCachedImage(fileLocation);
         XWPFRun run = par.createRun();
-        try (FileInputStream is = new FileInputStream(fileLocation)) {
-            run.addBreak();
+        run.addBreak();
+        addPicture(run, image, fileLocation, width, height);
+    }
+
+    /**
+     * Reads an image through the cache before the run is touched, so a missing file leaves the document unchanged.
+     * Missing or unreadable files are reported with FileNotFoundException, as a FileInputStream would.
+     */
+    private static byte[] readCachedImage(String fileLocation) throws IOException {
+        try {
+            return imageCache.get(fileLocation);
+        } catch (NoSuchFileException | AccessDeniedException e) {
+            FileNotFoundException notFound = new FileNotFoundException(fileLocation);
+            notFound.initCause(e);
+            throw notFound;
+        }
+    }
+
+    private static void addPicture(XWPFRun run, byte[] image, String fileLocation, int width, int height)
+            throws InvalidFormatException, IOException {
+        // addPicture looks the bytes up by checksum in the package and reuses an existing picture part
+        try (InputStream is = new ByteArrayInputStream(image)) {
             run.addPicture(is, XWPFDocument.PICTURE_TYPE_JPEG, fileLocation, Units.toEMU(width), Units.toEMU(height));
         }
     }
@@ -547,6 +581,18 @@ public abstract class UtilDoc {
         return doc;
     }
 
+    /**
+     * Replaces all placeholders of a map in headers, body, and footers with a single traversal.
+     * Placeholders split across runs are handled like in {@link #replacePOI(XWPFDocument, String, String)}.
+     *
+     * @param doc    the document to process
+     * @param values placeholder text (e.g. "$DATE$") -> replacement text
+     * @return the modified document
+     */
+    public static XWPFDocument replacePOI(XWPFDocument doc, Map<String, String> values) {
+        return DocTemplate.compile(doc).fill(doc, values);
+    }
+
     private static void replaceAllBodyElements(List<IBodyElement> bodyElements, String placeHolder, String replaceText) {
         for (IBodyElement bodyElement : bodyElements) {
             if (bodyElement.getElementType() == BodyElementType.PARAGRAPH) {
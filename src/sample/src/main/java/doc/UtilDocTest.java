@@ -5,6 +5,9 @@ import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 public class UtilDocTest {
 
@@ -28,10 +31,11 @@ public class UtilDocTest {
                 System.out.println(para.getText());
             }
 
-            // Use UtilDoc.replacePOI to replace placeholders
-            UtilDoc.replacePOI(document, "$COMPANY_NAME$", "Acme Corporation");
-            UtilDoc.replacePOI(document, "$ADDRESS$", "123 Main Street, New York");
-            UtilDoc.replacePOI(document, "$DATE$", "2026-01-18");
+            // Use UtilDoc.replacePOI to replace all placeholders in one pass
+            UtilDoc.replacePOI(document, Map.of(
+                    "$COMPANY_NAME$", "Acme Corporation",
+                    "$ADDRESS$", "123 Main Street, New York",
+                    "$DATE$", "2026-01-18"));
 
             System.out.println("\n--- After Replacement ---");
             for (XWPFParagraph para : document.getParagraphs()) {
@@ -51,5 +55,27 @@ public class UtilDocTest {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
         }
+
+        batchMerge(inputFile, basePath);
+    }
+
+    /**
+     * Merges the same template for a batch of records through DocBatchMerger.
+     */
+    private static void batchMerge(String inputFile, String basePath) {
+        System.out.println("\n=== Batch merge ===");
+        try {
+            DocBatchMerger<Integer> merger = new DocBatchMerger<>(Paths.get(inputFile),
+                    i -> Map.of(
+                            "$COMPANY_NAME$", "Company " + i,
+                            "$ADDRESS$", i + " Main Street, New York",
+                            "$DATE$", "2026-01-18"),
+                    i -> Paths.get(basePath, "test_output_" + i + ".docx"));
+            DocBatchMerger.BatchResult result = merger.mergeAll(IntStream.range(0, 100).iterator(), 4, 16);
+            System.out.println(result);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 }
@@ -11,6 +11,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Example class demonstrating Excel file generation using Apache POI.
@@ -21,6 +26,9 @@ public class Main extends UtilExcelPoi {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
     private static final String OUTPUT_FILE = EXCEL_FOLDER + "test.xlsx";
 
+    private static final StreamingExcelExporter.Column<Integer> STREAMING_ID = StreamingExcelExporter.column("Id", i -> i);
+    private static final StreamingExcelExporter.Column<Integer> STREAMING_AMOUNT = StreamingExcelExporter.column("Amount", i -> i * 1.5d);
+
     private final int[] rowNumber = new int[1];
     private final int[] colNumber = new int[1];
     private final String[] offset = new String[]{};
@@ -39,6 +47,77 @@ public class Main extends UtilExcelPoi {
     public static void main(String[] args) {
         Main main = new Main();
         main.generate();
+        main.generateStreaming(100_000);
+        main.generateParallel(20, 5_000);
+        main.readStreaming();
+    }
+
+    /**
+     * Reads back the file written by {@link #generateStreaming(int)} through the SAX-based reader.
+     */
+    public void readStreaming() {
+        String inputFile = EXCEL_FOLDER + "test_streaming.xlsx";
+        StreamingExcelReader<Number[]> reader = new StreamingExcelReader<>(() -> new Number[2])
+                .bind(STREAMING_ID, Integer.class, (r, v) -> r[0] = v)
+                .bind(STREAMING_AMOUNT, Double.class, (r, v) -> r[1] = v);
+
+        try (Stream<Number[]> rows = reader.stream(Paths.get(inputFile))) {
+            double total = rows.mapToDouble(r -> r[1] != null ? r[1].doubleValue() : 0).sum();
+            logger.info("Total amount read from {}: {}", inputFile, total);
+        }
+    }
+
+    /**
+     * Generates one sheet per zone, preparing the sheet contents on a worker pool.
+     *
+     * @param sheets number of sheets
+     * @param rows   number of data rows per sheet
+     */
+    public void generateParallel(int sheets, int rows) {
+        String outputFile = EXCEL_FOLDER + "test_parallel.xlsx";
+        String[] zoneHeaders = {"Zone", "Row", "Amount", "Notes"};
+        List<ParallelWorkbookGenerator.SheetJob> jobs = new ArrayList<>();
+        for (int s = 0; s < sheets; s++) {
+            String zone = "Zone " + (s + 1);
+            jobs.add(ParallelWorkbookGenerator.sheet(zone, zoneHeaders, () -> {
+                List<List<Object>> data = new ArrayList<>(rows);
+                for (int r = 0; r < rows; r++) {
+                    data.add(objectList(zone, r, r * 1.5d, "notes " + r));
+                }
+                return data;
+            }));
+        }
+
+        try (FileOutputStream outputStream = new FileOutputStream(outputFile)) {
+            new ParallelWorkbookGenerator(Runtime.getRuntime().availableProcessors()).generate(jobs, outputStream);
+            logger.info("Excel file generated successfully: {}", outputFile);
+        } catch (IOException e) {
+            logger.error("Failed to generate Excel file: {}", outputFile, e);
+        }
+    }
+
+    /**
+     * Generates a large Excel file through the row-streaming exporter.
+     *
+     * @param rows number of data rows to write
+     */
+    public void generateStreaming(int rows) {
+        String outputFile = EXCEL_FOLDER + "test_streaming.xlsx";
+        StreamingExcelExporter<Integer> exporter = new StreamingExcelExporter<Integer>(
+                STREAMING_ID,
+                StreamingExcelExporter.column("Supply Type", i -> "type " + (i % 10)),
+                STREAMING_AMOUNT,
+                StreamingExcelExporter.columnNoAutofit("Notes", i -> "notes for row " + i))
+                .sheetName("Streaming")
+                .rowWindow(200)
+                .flushEvery(10_000);
+
+        try (FileOutputStream outputStream = new FileOutputStream(outputFile)) {
+            exporter.export(IntStream.range(0, rows).boxed(), outputStream);
+            logger.info("Excel file generated successfully: {}", outputFile);
+        } catch (IOException e) {
+            logger.error("Failed to generate Excel file: {}", outputFile, e);
+        }
     }
 
     /**
@@ -81,6 +160,7 @@ public class Main extends UtilExcelPoi {
             // Write the workbook to file
             workbook.write(outputStream);
             logger.info("Excel file generated successfully: {}", OUTPUT_FILE);
+            logger.info("Style cache: {}", styleRegistry(workbook));
 
         } catch (IOException e) {
             logger.error("Failed to generate Excel file: {}", OUTPUT_FILE, e);
@@ -0,0 +1,163 @@
+package excel;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates a workbook made of many independent sheets (e.g. one per city).
+ * Sheet contents are prepared on a worker pool, while a single writer (the calling thread)
+ * appends them to one {@link SXSSFWorkbook} in submission order, since POI workbooks are not thread-safe.
+ * At most {@code maxInFlight} prepared sheets are held in memory at the same time.
+ */
+public class ParallelWorkbookGenerator extends UtilExcelPoi {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelWorkbookGenerator.class);
+
+    private final int threads;
+    private final int maxInFlight;
+    private int rowWindow = StreamingExcelExporter.DEFAULT_ROW_WINDOW;
+
+    public ParallelWorkbookGenerator(int threads) {
+        this(threads, threads * 2);
+    }
+
+    public ParallelWorkbookGenerator(int threads, int maxInFlight) {
+        this.threads = threads;
+        this.maxInFlight = Math.max(maxInFlight, 1);
+    }
+
+    public ParallelWorkbookGenerator rowWindow(int rowWindow) {
+        this.rowWindow = rowWindow;
+        return this;
+    }
+
+    /**
+     * Creates a sheet job.
+     *
+     * @param name    Sheet name
+     * @param headers Column headers
+     * @param rows    Task preparing the row values, run on the worker pool
+     * @return The job
+     */
+    public static SheetJob sheet(String name, String[] headers, Callable<List<List<Object>>> rows) {
+        return new SheetJob(name, headers, rows);
+    }
+
+    /**
+     * Prepares all sheets in parallel and writes the workbook.
+     *
+     * @param jobs Sheets to generate, in output order
+     * @param out  Destination, not closed
+     * @return Timing of each sheet, in output order
+     */
+    public List<SheetTiming> generate(List<SheetJob> jobs, OutputStream out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = createStandardStyle(workbook, true,
+                    Styles.STANDARD_BORDER, Styles.HEADER_TEXT, Styles.HEADER_FOREGROUND, Styles.ALIGN_HORIZONTAL_CENTER);
+            CellStyle standardStyle = createStandardStyle(workbook, false, Styles.STANDARD_BORDER, Styles.STANDARD_TEXT);
+
+            List<SheetTiming> timings = new ArrayList<>(jobs.size());
+            Deque<Future<Prepared>> inFlight = new ArrayDeque<>();
+            int next = 0;
+            while (next < jobs.size() || !inFlight.isEmpty()) {
+                while (next < jobs.size() && inFlight.size() < maxInFlight) {
+                    SheetJob job = jobs.get(next++);
+                    inFlight.add(executor.submit(() -> prepare(job)));
+                }
+                Prepared prepared = await(inFlight.poll());
+                long start = System.nanoTime();
+                write(workbook, prepared, headerStyle, standardStyle);
+                SheetTiming timing = new SheetTiming(prepared.job.name, prepared.rows.size(),
+                        prepared.prepareMillis, (System.nanoTime() - start) / 1_000_000);
+                logger.info("{}", timing);
+                timings.add(timing);
+            }
+
+            workbook.write(out);
+            out.flush();
+            logger.info("Style cache: {}", styleRegistry(workbook));
+            return timings;
+        } finally {
+            executor.shutdownNow();
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static Prepared prepare(SheetJob job) throws Exception {
+        long start = System.nanoTime();
+        List<List<Object>> rows = job.rows.call();
+        return new Prepared(job, rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static Prepared await(Future<Prepared> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while preparing sheets", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error preparing sheet", e.getCause());
+        }
+    }
+
+    private static void write(SXSSFWorkbook workbook, Prepared prepared, CellStyle headerStyle, CellStyle standardStyle) {
+        SXSSFSheet sheet = workbook.createSheet(prepared.job.name);
+        int[] rowNumber = {0};
+        int[] colNumber = {0};
+        createHeaderRow(sheet, rowNumber, prepared.job.headers, 0, headerStyle);
+        for (List<Object> values : prepared.rows) {
+            Row row = createRow(sheet, rowNumber[0]++);
+            colNumber[0] = 0;
+            createCellsWithValuesAndStyles(sheet, row, colNumber, values, standardStyle, Options.IGNORE_AUTOFIT);
+        }
+    }
+
+    /**
+     * A sheet to generate: name, headers and the task preparing its rows.
+     */
+    public static final class SheetJob {
+        private final String name;
+        private final String[] headers;
+        private final Callable<List<List<Object>>> rows;
+
+        private SheetJob(String name, String[] headers, Callable<List<List<Object>>> rows) {
+            this.name = name;
+            this.headers = headers;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Time spent preparing (worker) and writing (writer thread) a sheet.
+     */
+    public record SheetTiming(String sheet, int rows, long prepareMillis, long writeMillis) {
+        @Override
+        public String toString() {
+            return "Sheet '" + sheet + "': " + rows + " rows, prepared in " + prepareMillis
+                    + " ms, written in " + writeMillis + " ms";
+        }
+    }
+
+    private record Prepared(SheetJob job, List<List<Object>> rows, long prepareMillis) {
+    }
+}
@@ -0,0 +1,242 @@
+package excel;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.UtilFunction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Row-streaming Excel exporter for very large data sets.
+ * Records are pulled from an {@link Iterator} or {@link Stream} and mapped to cells through a column spec,
+ * while only a bounded window of rows is kept in memory; older rows go to compressed temp files.
+ * When a sheet reaches the Excel row limit, export continues on a new sheet with the header repeated.
+ *
+ * @param <T> Record type
+ */
+public class StreamingExcelExporter<T> extends UtilExcelPoi {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingExcelExporter.class);
+
+    public static final int DEFAULT_ROW_WINDOW = 500;
+    public static final int DEFAULT_FLUSH_EVERY = 10_000;
+
+    private final List<Column<T>> columns;
+    private String sheetName = "Sheet";
+    private int rowWindow = DEFAULT_ROW_WINDOW;
+    private int flushEvery = DEFAULT_FLUSH_EVERY;
+    private int maxRowsPerSheet = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private boolean autoFit = true;
+
+    public StreamingExcelExporter(List<Column<T>> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        this.columns = List.copyOf(columns);
+        if (STANDARD_HEADER_TEXT_COLOR == null) STANDARD_HEADER_TEXT_COLOR = IndexedColors.WHITE;
+        if (STANDARD_HEADER_BG == null) STANDARD_HEADER_BG = IndexedColors.BLUE;
+        if (STANDARD_TEXT_COLOR == null) STANDARD_TEXT_COLOR = IndexedColors.BLACK;
+        if (STANDARD_BG == null) STANDARD_BG = IndexedColors.WHITE;
+    }
+
+    @SafeVarargs
+    public StreamingExcelExporter(Column<T>... columns) {
+        this(Arrays.asList(columns));
+    }
+
+    /**
+     * Creates a column reading its value from each record.
+     *
+     * @param header Header text
+     * @param value  Value extractor (String, Integer, Double or other Number)
+     * @param styles Style options of the data cells; STANDARD_BORDER + STANDARD_TEXT if empty
+     * @return The column
+     */
+    public static <T> Column<T> column(String header, Function<? super T, ?> value, Styles... styles) {
+        return new Column<>(header, value, styles, false);
+    }
+
+    /**
+     * Creates a column that is never auto-fitted (e.g. long free text).
+     */
+    public static <T> Column<T> columnNoAutofit(String header, Function<? super T, ?> value, Styles... styles) {
+        return new Column<>(header, value, styles, true);
+    }
+
+    public StreamingExcelExporter<T> sheetName(String sheetName) {
+        this.sheetName = sheetName;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows kept in memory; older rows are flushed to the temp file.
+     */
+    public StreamingExcelExporter<T> rowWindow(int rowWindow) {
+        this.rowWindow = rowWindow;
+        return this;
+    }
+
+    /**
+     * Sets how many rows are written between explicit flush points.
+     */
+    public StreamingExcelExporter<T> flushEvery(int flushEvery) {
+        this.flushEvery = flushEvery;
+        return this;
+    }
+
+    /**
+     * Sets the sheet rollover threshold, header row included.
+     */
+    public StreamingExcelExporter<T> maxRowsPerSheet(int maxRowsPerSheet) {
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        return this;
+    }
+
+    /**
+     * Enables column auto-fit, computed on the rows written up to the first flush point of each sheet.
+     */
+    public StreamingExcelExporter<T> autoFit(boolean autoFit) {
+        this.autoFit = autoFit;
+        return this;
+    }
+
+    /**
+     * Exports all the records of a stream and closes it.
+     *
+     * @param records Records to write
+     * @param out     Destination, not closed
+     * @return Number of data rows written
+     */
+    public long export(Stream<? extends T> records, OutputStream out) throws IOException {
+        try (records) {
+            return export(records.iterator(), out);
+        }
+    }
+
+    /**
+     * Exports all the records of an iterator.
+     *
+     * @param records Records to write
+     * @param out     Destination, not closed
+     * @return Number of data rows written
+     */
+    public long export(Iterator<? extends T> records, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = createStandardStyle(workbook, true,
+                    Styles.STANDARD_BORDER, Styles.HEADER_TEXT, Styles.HEADER_FOREGROUND, Styles.ALIGN_HORIZONTAL_CENTER);
+            CellStyle[] cellStyles = new CellStyle[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                Styles[] styles = columns.get(c).styles;
+                cellStyles[c] = createStandardStyle(workbook, false,
+                        styles.length > 0 ? styles : new Styles[]{Styles.STANDARD_BORDER, Styles.STANDARD_TEXT});
+            }
+
+            long total = 0;
+            int sheetIndex = 0;
+            SXSSFSheet sheet = null;
+            int rowNumber = 0;
+            boolean tracking = false;
+            while (records.hasNext()) {
+                if (sheet == null || rowNumber >= maxRowsPerSheet) {
+                    if (tracking) {
+                        applyAutoFit(sheet);
+                    }
+                    sheet = workbook.createSheet(sheetIndex == 0 ? sheetName : sheetName + " (" + (sheetIndex + 1) + ")");
+                    sheetIndex++;
+                    tracking = autoFit;
+                    if (tracking) {
+                        sheet.trackAllColumnsForAutoSizing();
+                    }
+                    writeHeader(sheet, headerStyle);
+                    rowNumber = 1;
+                }
+
+                T record = records.next();
+                Row row = sheet.createRow(rowNumber++);
+                for (int c = 0; c < columns.size(); c++) {
+                    Cell cell = row.createCell(c);
+                    setValueAndStyle(cell, UtilFunction.nullZero(columns.get(c).value.apply(record)), cellStyles[c]);
+                }
+                total++;
+
+                if (total % flushEvery == 0) {
+                    // Explicit flush point: auto-fit once on the rows seen so far, then stop tracking widths
+                    if (tracking) {
+                        applyAutoFit(sheet);
+                        tracking = false;
+                    }
+                    sheet.flushRows();
+                    logger.debug("Flushed {} rows", total);
+                }
+            }
+            if (tracking) {
+                applyAutoFit(sheet);
+            }
+            if (sheet == null) {
+                writeHeader(workbook.createSheet(sheetName), headerStyle);
+            }
+
+            workbook.write(out);
+            out.flush();
+            logger.info("Exported {} rows on {} sheet(s) in {} ms, style cache: {}", total, Math.max(sheetIndex, 1),
+                    System.currentTimeMillis() - start, styleRegistry(workbook));
+            return total;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void writeHeader(SXSSFSheet sheet, CellStyle headerStyle) {
+        Row row = createRow(sheet, 0);
+        for (int c = 0; c < columns.size(); c++) {
+            setValueAndStyle(createCell(row, c), columns.get(c).header, headerStyle);
+        }
+    }
+
+    private void applyAutoFit(SXSSFSheet sheet) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (!columns.get(c).ignoreAutofit) {
+                sheet.autoSizeColumn(c);
+            }
+        }
+        sheet.untrackAllColumnsForAutoSizing();
+    }
+
+    /**
+     * Column spec: header text, value extractor and cell style options.
+     */
+    public static final class Column<T> {
+        private final String header;
+        private final Function<? super T, ?> value;
+        private final Styles[] styles;
+        private final boolean ignoreAutofit;
+
+        private Column(String header, Function<? super T, ?> value, Styles[] styles, boolean ignoreAutofit) {
+            this.header = header;
+            this.value = value;
+            this.styles = styles;
+            this.ignoreAutofit = ignoreAutofit;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+    }
+}
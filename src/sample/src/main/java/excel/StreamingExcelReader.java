@@ -0,0 +1,368 @@
+package excel;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming .xlsx reader built on the XSSF event model (shared strings table + sheet SAX handler).
+ * Columns are bound by header text, the same text the writers in this package put in the header row,
+ * and each data row is mapped to a new record. A column can be bound from the {@link StreamingExcelExporter.Column}
+ * that wrote it, with numeric and date cells converted back from their raw value instead of the formatted text.
+ * Layout {@code Options} (auto-fit, merged cells) have no effect on the values: a merged title row above the
+ * headers is skipped with {@link #headerRow(int)}.
+ * The SAX parse runs on a background thread feeding a bounded queue, so memory stays constant
+ * and the parser blocks when the consumer falls behind.
+ *
+ * @param <T> Record type
+ */
+public class StreamingExcelReader<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingExcelReader.class);
+    private static final Object END = new Object();
+
+    public static final int DEFAULT_QUEUE_SIZE = 1_000;
+
+    private final Supplier<T> factory;
+    private static final Set<Class<?>> TYPES = Set.of(String.class, Integer.class, Long.class, Double.class,
+            BigDecimal.class, Boolean.class, LocalDate.class, LocalDateTime.class, Date.class);
+
+    private final Map<String, CellSetter<T>> bindings = new HashMap<>();
+    private int sheetIndex = 0;
+    private int headerRow = 0;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    public StreamingExcelReader(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Binds the column with the given header text to a record setter.
+     *
+     * @param header Header text
+     * @param setter Setter receiving the formatted cell value
+     * @return This reader
+     */
+    public StreamingExcelReader<T> bind(String header, BiConsumer<T, String> setter) {
+        bindings.put(header, (record, formatted, raw) -> setter.accept(record, formatted));
+        return this;
+    }
+
+    /**
+     * Binds the column written by an exporter column spec to a typed record setter.
+     * Numeric cells are converted from their raw value, so formatting (e.g. the currency format of Double values)
+     * is not parsed back; dates are numeric cells converted with {@link DateUtil#getJavaDate(double)}.
+     * Empty cells are skipped.
+     *
+     * @param column Column spec of the writer, matched by its header text
+     * @param type   String, Integer, Long, Double, BigDecimal, Boolean, LocalDate, LocalDateTime or Date
+     * @param setter Setter receiving the converted value
+     * @return This reader
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public <V> StreamingExcelReader<T> bind(StreamingExcelExporter.Column<?> column, Class<V> type,
+                                            BiConsumer<T, ? super V> setter) {
+        if (!TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unsupported column type: " + type.getName());
+        }
+        bindings.put(column.getHeader(), (record, formatted, raw) -> {
+            if (!formatted.isEmpty()) {
+                setter.accept(record, type.cast(convert(formatted, raw, type)));
+            }
+        });
+        return this;
+    }
+
+    private static Object convert(String formatted, Double raw, Class<?> type) {
+        if (type == String.class) {
+            return formatted;
+        }
+        if (type == Boolean.class) {
+            return Boolean.valueOf(formatted.trim());
+        }
+        // Numeric cells without a number format, e.g. formula results, only come as text
+        double value = raw != null ? raw : Double.parseDouble(formatted.trim());
+        if (type == Integer.class) {
+            return (int) value;
+        } else if (type == Long.class) {
+            return (long) value;
+        } else if (type == Double.class) {
+            return value;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.valueOf(value);
+        }
+        Date date = DateUtil.getJavaDate(value);
+        if (type == Date.class) {
+            return date;
+        }
+        LocalDateTime dateTime = LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        return type == LocalDate.class ? dateTime.toLocalDate() : dateTime;
+    }
+
+    /**
+     * Selects the sheet to read (0-based).
+     */
+    public StreamingExcelReader<T> sheetIndex(int sheetIndex) {
+        this.sheetIndex = sheetIndex;
+        return this;
+    }
+
+    /**
+     * Sets the row holding the headers (0-based), e.g. 1 when a merged title row comes first.
+     * Rows before it are skipped.
+     */
+    public StreamingExcelReader<T> headerRow(int headerRow) {
+        this.headerRow = headerRow;
+        return this;
+    }
+
+    /**
+     * Sets how many parsed records may wait for the consumer before the parser blocks.
+     */
+    public StreamingExcelReader<T> queueSize(int queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * Reads the records of an .xlsx file.
+     * The stream must be closed to stop the parser when it is not fully consumed.
+     *
+     * @param file File to read, opened read-only
+     * @return Lazily populated stream of records
+     */
+    public Stream<T> stream(Path file) {
+        RecordIterator iterator = new RecordIterator(file);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    private final class RecordIterator implements Iterator<T> {
+
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueSize);
+        private final Thread parser;
+        private Object next;
+        private boolean done;
+
+        private RecordIterator(Path file) {
+            parser = new Thread(() -> parse(file), "xlsx-reader-" + file.getFileName());
+            parser.setDaemon(true);
+            parser.start();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while reading " + parser.getName(), e);
+                }
+            }
+            if (next == END) {
+                done = true;
+                return false;
+            }
+            if (next instanceof Failure failure) {
+                done = true;
+                throw new IllegalStateException("Error reading Excel file", failure.cause);
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T record = (T) next;
+            next = null;
+            return record;
+        }
+
+        private void close() {
+            done = true;
+            parser.interrupt();
+        }
+
+        private void parse(Path file) {
+            OPCPackage pkg = null;
+            try {
+                pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                for (int i = 0; sheets.hasNext(); i++) {
+                    try (InputStream sheet = sheets.next()) {
+                        if (i == sheetIndex) {
+                            RawValueFormatter formatter = new RawValueFormatter();
+                            XMLReader xmlReader = SAXHelper.newXMLReader();
+                            xmlReader.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                                    new RowHandler(this, formatter), formatter, false));
+                            xmlReader.parse(new InputSource(sheet));
+                            break;
+                        }
+                    }
+                }
+                put(END);
+            } catch (Stopped e) {
+                logger.debug("Reader stopped before the end of {}", file);
+            } catch (Exception e) {
+                try {
+                    put(new Failure(e));
+                } catch (Stopped ignored) {
+                    // consumer already gone
+                }
+            } finally {
+                if (pkg != null) {
+                    // Read-only package: revert instead of close, nothing to save
+                    pkg.revert();
+                }
+            }
+        }
+
+        private void put(Object element) {
+            try {
+                queue.put(element);
+            } catch (InterruptedException e) {
+                throw new Stopped();
+            }
+        }
+    }
+
+    private final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RecordIterator iterator;
+        private final RawValueFormatter formatter;
+        private CellSetter<T>[] columns;
+        private T current;
+
+        private RowHandler(RecordIterator iterator, RawValueFormatter formatter) {
+            this.iterator = iterator;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            current = rowNum > headerRow && columns != null ? factory.get() : null;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (current != null) {
+                iterator.put(current);
+                current = null;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            Double raw = formatter.takeRawValue();
+            CellReference reference = new CellReference(cellReference);
+            int column = reference.getCol();
+            if (current != null) {
+                if (column < columns.length && columns[column] != null) {
+                    try {
+                        columns[column].accept(current, formattedValue, raw);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Cannot convert cell " + cellReference + ": " + formattedValue, e);
+                    }
+                }
+            } else if (reference.getRow() == headerRow && bindings.containsKey(formattedValue)) {
+                if (columns == null) {
+                    columns = new CellSetter[0];
+                }
+                if (column >= columns.length) {
+                    columns = Arrays.copyOf(columns, column + 1);
+                }
+                columns[column] = bindings.get(formattedValue);
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Not needed for data rows
+        }
+    }
+
+    /**
+     * Sets a record field from a cell: its formatted text and, for numeric cells, the raw value.
+     */
+    private interface CellSetter<T> {
+        void accept(T record, String formatted, Double raw);
+    }
+
+    /**
+     * Keeps the raw value of the numeric cell being formatted: the sheet handler formats each numeric cell
+     * right before passing it to {@link RowHandler#cell}, on the same thread.
+     */
+    private static final class RawValueFormatter extends DataFormatter {
+
+        private Double rawValue;
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            rawValue = value;
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+
+        private Double takeRawValue() {
+            Double value = rawValue;
+            rawValue = null;
+            return value;
+        }
+    }
+
+    private record Failure(Exception cause) {
+    }
+
+    /**
+     * Thrown inside the SAX callbacks to abort parsing once the consumer has closed the stream.
+     */
+    private static final class Stopped extends RuntimeException {
+        private Stopped() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package excel;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * Value object describing a cell style, used as the interning key of {@link StyleRegistry}.
+ * Null components are left at the POI default.
+ */
+public record StyleKey(IndexedColors fontColor, boolean bold,
+                       IndexedColors foregroundColor, FillPatternType fillPattern,
+                       BorderStyle border, IndexedColors borderColor,
+                       HorizontalAlignment horizontalAlignment, VerticalAlignment verticalAlignment,
+                       boolean wrapText, short dataFormat) {
+
+    public static final StyleKey EMPTY = new StyleKey(null, false, null, null, null, null, null, null, false, (short) 0);
+
+    public StyleKey withFont(IndexedColors color, boolean bold) {
+        return new StyleKey(color, bold, foregroundColor, fillPattern, border, borderColor,
+                horizontalAlignment, verticalAlignment, wrapText, dataFormat);
+    }
+
+    public StyleKey withForeground(IndexedColors color, FillPatternType pattern) {
+        return new StyleKey(fontColor, bold, color, pattern, border, borderColor,
+                horizontalAlignment, verticalAlignment, wrapText, dataFormat);
+    }
+
+    public StyleKey withBorder(BorderStyle border, IndexedColors color) {
+        return new StyleKey(fontColor, bold, foregroundColor, fillPattern, border, color,
+                horizontalAlignment, verticalAlignment, wrapText, dataFormat);
+    }
+
+    public StyleKey withHorizontalAlignment(HorizontalAlignment alignment) {
+        return new StyleKey(fontColor, bold, foregroundColor, fillPattern, border, borderColor,
+                alignment, verticalAlignment, wrapText, dataFormat);
+    }
+
+    public StyleKey withVerticalAlignment(VerticalAlignment alignment) {
+        return new StyleKey(fontColor, bold, foregroundColor, fillPattern, border, borderColor,
+                horizontalAlignment, alignment, wrapText, dataFormat);
+    }
+
+    public StyleKey withWrapText(boolean wrap) {
+        return new StyleKey(fontColor, bold, foregroundColor, fillPattern, border, borderColor,
+                horizontalAlignment, verticalAlignment, wrap, dataFormat);
+    }
+
+    public StyleKey withDataFormat(short format) {
+        return new StyleKey(fontColor, bold, foregroundColor, fillPattern, border, borderColor,
+                horizontalAlignment, verticalAlignment, wrapText, format);
+    }
+}
@@ -0,0 +1,141 @@
+package excel;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-workbook interning cache of cell styles and fonts.
+ * Equal {@link StyleKey}s resolve to the same {@link CellStyle}, keeping large sheets
+ * well below the 64k style limit. Only style/font indexes are stored, so a registry never
+ * keeps its workbook alive.
+ */
+public final class StyleRegistry {
+
+    private static final Map<Workbook, StyleRegistry> REGISTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<StyleKey, Integer> styles = new HashMap<>();
+    private final Map<Integer, StyleKey> keysByIndex = new HashMap<>();
+    private final Map<FontKey, Integer> fonts = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    private StyleRegistry() {
+    }
+
+    /**
+     * Gets the registry of a workbook, creating it on first use.
+     *
+     * @param workbook the workbook owning the styles
+     * @return the registry
+     */
+    public static StyleRegistry of(Workbook workbook) {
+        return REGISTRIES.computeIfAbsent(workbook, w -> new StyleRegistry());
+    }
+
+    /**
+     * Gets the style matching the key, creating it only the first time.
+     *
+     * @param workbook the workbook owning the styles
+     * @param key      the style description
+     * @return the shared cell style
+     */
+    public synchronized CellStyle intern(Workbook workbook, StyleKey key) {
+        Integer index = styles.get(key);
+        if (index != null) {
+            hits++;
+            return workbook.getCellStyleAt(index);
+        }
+        misses++;
+        CellStyle style = workbook.createCellStyle();
+        if (key.border() != null) {
+            UtilExcelPoi.applyBorder(style, key.border(), key.borderColor());
+        }
+        if (key.foregroundColor() != null) {
+            UtilExcelPoi.applyForegroundColor(style, key.foregroundColor(), key.fillPattern());
+        }
+        if (key.fontColor() != null) {
+            style.setFont(font(workbook, key.fontColor(), key.bold()));
+        }
+        if (key.wrapText()) {
+            UtilExcelPoi.applyMultiLine(style);
+        }
+        if (key.horizontalAlignment() != null) {
+            UtilExcelPoi.applyHorizontalAlignment(style, key.horizontalAlignment());
+        }
+        if (key.verticalAlignment() != null) {
+            UtilExcelPoi.applyVerticalAlignment(style, key.verticalAlignment());
+        }
+        style.setDataFormat(key.dataFormat());
+        styles.put(key, (int) style.getIndex());
+        keysByIndex.put((int) style.getIndex(), key);
+        return style;
+    }
+
+    /**
+     * Gets the variant of an interned style with another data format.
+     * Styles not created by this registry are modified in place.
+     *
+     * @param workbook the workbook owning the styles
+     * @param style    the base style
+     * @param format   the data format index
+     * @return the style to apply
+     */
+    public synchronized CellStyle withDataFormat(Workbook workbook, CellStyle style, short format) {
+        if (style.getDataFormat() == format) {
+            return style;
+        }
+        StyleKey key = keysByIndex.get((int) style.getIndex());
+        if (key == null) {
+            style.setDataFormat(format);
+            return style;
+        }
+        return intern(workbook, key.withDataFormat(format));
+    }
+
+    /**
+     * Gets the font with the given color and weight, creating it only the first time.
+     */
+    public synchronized Font font(Workbook workbook, IndexedColors color, boolean bold) {
+        FontKey key = new FontKey(color, bold);
+        Integer index = fonts.get(key);
+        if (index != null) {
+            return workbook.getFontAt(index);
+        }
+        Font font = workbook.createFont();
+        font.setColor(color.getIndex());
+        font.setBold(bold);
+        fonts.put(key, font.getIndexAsInt());
+        return font;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of distinct styles created through the registry.
+     */
+    public synchronized int size() {
+        return styles.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StyleRegistry [styles=" + styles.size() + ", fonts=" + fonts.size()
+                + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    private record FontKey(IndexedColors color, boolean bold) {
+    }
+}
@@ -24,6 +24,7 @@ public abstract class UtilExcelPoi {
             FileSystems.getDefault().getSeparator() + "Excel" +
             FileSystems.getDefault().getSeparator();
     protected static final boolean[] error = new boolean[1];
+    protected static final short CURRENCY_FORMAT = (short) 0x7;
     private static final Logger logger = LoggerFactory.getLogger(UtilExcelPoi.class);
     protected static IndexedColors STANDARD_HEADER_TEXT_COLOR;
     protected static IndexedColors STANDARD_HEADER_BG;
@@ -144,14 +145,21 @@ public abstract class UtilExcelPoi {
      * Applies default currency format to a cell style.
      */
     protected static void applyDefaultCurrencyFormat(CellStyle style) {
-        style.setDataFormat((short) 0x7);
+        style.setDataFormat(CURRENCY_FORMAT);
+    }
+
+    /**
+     * Gets the style registry of a workbook, e.g. to log its hit/miss counters.
+     */
+    protected static StyleRegistry styleRegistry(Workbook workbook) {
+        return StyleRegistry.of(workbook);
     }
 
     /**
      * Sets the value and style of a cell based on the field type.
      *
      * @param cell  the cell to modify
-     * @param field the value to set (String, Integer, or Double)
+     * @param field the value to set (String, Integer, Double or other Number)
      * @param style the style to apply
      */
     protected static <T> void setValueAndStyle(Cell cell, T field, CellStyle style) {
@@ -160,8 +168,14 @@ public abstract class UtilExcelPoi {
         } else if (field instanceof Integer) {
             cell.setCellValue((Integer) UtilFunction.valueOrEmptyNum((Integer) field));
         } else if (field instanceof Double) {
-            applyDefaultCurrencyFormat(style);
+            // Interned styles are shared: switch to the currency variant instead of modifying the style
+            if (style != null) {
+                Workbook workbook = cell.getSheet().getWorkbook();
+                style = StyleRegistry.of(workbook).withDataFormat(workbook, style, CURRENCY_FORMAT);
+            }
             cell.setCellValue((Double) UtilFunction.valueOrEmptyNum((Double) field));
+        } else if (field instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
         } else {
             logger.warn("Unhandled field type. TValue: {}, Class: {}", field, field.getClass());
         }
@@ -297,6 +311,7 @@ public abstract class UtilExcelPoi {
 
     /**
      * Creates a standard cell style with the specified options.
+     * Styles are interned per workbook, so equal options return the same shared style.
      *
      * @param workbook the workbook to create the style in
      * @param bold     whether text should be bold
@@ -304,48 +319,48 @@ public abstract class UtilExcelPoi {
      * @return the created cell style
      */
     protected static CellStyle createStandardStyle(SXSSFWorkbook workbook, boolean bold, Styles... styles) {
-        CellStyle style = workbook.createCellStyle();
+        StyleKey key = StyleKey.EMPTY;
 
         for (Styles styleOption : styles) {
-            switch (styleOption) {
-                case STANDARD_BORDER -> applyBorder(style, BorderStyle.THIN, IndexedColors.BLACK);
-                case HEADER_FOREGROUND ->
-                        applyForegroundColor(style, STANDARD_HEADER_BG, FillPatternType.SOLID_FOREGROUND);
-                case HEADER_TEXT -> applyFontAndColor(workbook, style, STANDARD_HEADER_TEXT_COLOR, bold);
-                case STANDARD_FOREGROUND -> applyForegroundColor(style, STANDARD_BG, FillPatternType.SOLID_FOREGROUND);
-                case STANDARD_TEXT -> applyFontAndColor(workbook, style, STANDARD_TEXT_COLOR, bold);
-                case MULTI_LINE -> applyMultiLine(style);
-                case ALIGN_HORIZONTAL_CENTER -> applyHorizontalAlignment(style, HorizontalAlignment.CENTER);
-                case ALIGN_VERTICAL_CENTER -> applyVerticalAlignment(style, VerticalAlignment.CENTER);
-            }
+            key = switch (styleOption) {
+                case STANDARD_BORDER -> key.withBorder(BorderStyle.THIN, IndexedColors.BLACK);
+                case HEADER_FOREGROUND -> key.withForeground(STANDARD_HEADER_BG, FillPatternType.SOLID_FOREGROUND);
+                case HEADER_TEXT -> key.withFont(STANDARD_HEADER_TEXT_COLOR, bold);
+                case STANDARD_FOREGROUND -> key.withForeground(STANDARD_BG, FillPatternType.SOLID_FOREGROUND);
+                case STANDARD_TEXT -> key.withFont(STANDARD_TEXT_COLOR, bold);
+                case MULTI_LINE -> key.withWrapText(true);
+                case ALIGN_HORIZONTAL_CENTER -> key.withHorizontalAlignment(HorizontalAlignment.CENTER);
+                case ALIGN_VERTICAL_CENTER -> key.withVerticalAlignment(VerticalAlignment.CENTER);
+            };
         }
-        return style;
+        return StyleRegistry.of(workbook).intern(workbook, key);
     }
 
     /**
      * Creates a custom cell style with parameterized options.
+     * Styles are interned per workbook, so equal options return the same shared style.
      */
     @SafeVarargs
     protected static CellStyle createCustomStyle(SXSSFWorkbook workbook, boolean bold,
                                                  Pair<Styles, List<Object>>... styles) {
-        CellStyle style = workbook.createCellStyle();
+        StyleKey key = StyleKey.EMPTY;
 
         for (Pair<Styles, List<Object>> styleOption : styles) {
             Styles styleType = styleOption.getFirst();
             List<Object> params = styleOption.getSecond();
 
-            switch (styleType) {
-                case STANDARD_BORDER -> applyBorder(style, BorderStyle.THIN, IndexedColors.BLACK);
+            key = switch (styleType) {
+                case STANDARD_BORDER -> key.withBorder(BorderStyle.THIN, IndexedColors.BLACK);
                 case STANDARD_FOREGROUND ->
-                        applyForegroundColor(style, getColor(params.get(0)), FillPatternType.SOLID_FOREGROUND);
-                case STANDARD_TEXT -> applyFontAndColor(workbook, style, getColor(params.get(0)), bold);
-                case MULTI_LINE -> applyMultiLine(style);
-                case ALIGN_HORIZONTAL_CENTER -> applyHorizontalAlignment(style, HorizontalAlignment.CENTER);
-                case ALIGN_VERTICAL_CENTER -> applyVerticalAlignment(style, VerticalAlignment.CENTER);
-                default -> { /* No action for other styles */ }
-            }
+                        key.withForeground(getColor(params.get(0)), FillPatternType.SOLID_FOREGROUND);
+                case STANDARD_TEXT -> key.withFont(getColor(params.get(0)), bold);
+                case MULTI_LINE -> key.withWrapText(true);
+                case ALIGN_HORIZONTAL_CENTER -> key.withHorizontalAlignment(HorizontalAlignment.CENTER);
+                case ALIGN_VERTICAL_CENTER -> key.withVerticalAlignment(VerticalAlignment.CENTER);
+                default -> key; /* No action for other styles */
+            };
         }
-        return style;
+        return StyleRegistry.of(workbook).intern(workbook, key);
     }
 
     /**
@@ -373,14 +388,11 @@ public abstract class UtilExcelPoi {
     }
 
     /**
-     * Applies font and color to a cell style.
+     * Applies font and color to a cell style, reusing the workbook font with the same color and weight.
      */
     protected static CellStyle applyFontAndColor(SXSSFWorkbook workbook, CellStyle style,
                                                  IndexedColors color, boolean bold) {
-        Font font = workbook.createFont();
-        font.setColor(color.getIndex());
-        font.setBold(bold);
-        style.setFont(font);
+        style.setFont(StyleRegistry.of(workbook).font(workbook, color, bold));
         return style;
     }
 
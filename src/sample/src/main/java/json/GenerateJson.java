@@ -1,8 +1,14 @@
 package json;
 
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import models.entity.City;
+import models.entity.ParkingZone;
+import models.entity.Shape;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -13,15 +19,40 @@ import org.slf4j.LoggerFactory;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Demonstrates JSON parsing and generation using both json-simple and Gson libraries.
- * Shows different approaches to working with JSON in Java.
+ * Shows different approaches to working with JSON in Java, including streaming
+ * export and import of large City/ParkingZone arrays.
  */
 public class GenerateJson extends UtilJson {
 
     private static final Logger logger = LoggerFactory.getLogger(GenerateJson.class);
     private static final String OUTPUT_FILE = DATA_FOLDER + "output.json";
+    private static final int ZONES_PER_CITY = 5;
+
+    // ParkingZone.city and Shape.parkingZone point back to their parent and would make the graph cyclic
+    private static final Gson EXPORT_GSON = new GsonBuilder()
+            .setExclusionStrategies(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes f) {
+                    return (f.getDeclaringClass() == ParkingZone.class && f.getName().equals("city"))
+                            || (f.getDeclaringClass() == Shape.class && f.getName().equals("parkingZone"));
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            })
+            .create();
 
     public static void main(String[] args) {
         GenerateJson generator = new GenerateJson();
@@ -32,6 +63,11 @@ public class GenerateJson extends UtilJson {
 
         // Gson examples
         generator.demonstrateGsonParsing();
+
+        // Streaming examples: java GenerateJson <city-count>
+        if (args.length > 0) {
+            generator.demonstrateStreaming(Long.parseLong(args[0]));
+        }
     }
 
     /**
@@ -120,6 +156,56 @@ public class GenerateJson extends UtilJson {
         demonstrateGsonSerialization(person);
     }
 
+    /**
+     * Exports generated cities with their parking zones as a JSON array and as NDJSON, then reads both back.
+     * Cities are produced, written and read one at a time, so memory use does not depend on the count.
+     *
+     * @param cityCount number of cities to export
+     */
+    public void demonstrateStreaming(long cityCount) {
+        Path arrayFile = Paths.get(DATA_FOLDER, "cities.json");
+        Path ndjsonFile = Paths.get(DATA_FOLDER, "cities.ndjson");
+        try {
+            long start = System.currentTimeMillis();
+            writeStream(arrayFile, cities(cityCount), City.class, JsonStreamWriter.Format.ARRAY, EXPORT_GSON);
+            writeStream(ndjsonFile, cities(cityCount), City.class, JsonStreamWriter.Format.NDJSON, EXPORT_GSON);
+            logger.info("Exported {} cities twice in {} ms", cityCount, System.currentTimeMillis() - start);
+
+            start = System.currentTimeMillis();
+            try (Stream<City> cities = readArray(arrayFile, City.class, EXPORT_GSON)) {
+                LongSummaryStatistics zones = cities.map(GenerateJson::linkParkingZones)
+                        .mapToLong(city -> city.getParkingZoneList().size())
+                        .summaryStatistics();
+                logger.info("Read {} cities and {} parking zones from the array", zones.getCount(), zones.getSum());
+            }
+            try (Stream<City> cities = readNdjson(ndjsonFile, City.class, EXPORT_GSON)) {
+                logger.info("Read {} cities from NDJSON", cities.count());
+            }
+            logger.info("Imported both files in {} ms", System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            logger.error("Failed to stream JSON files to: {}", DATA_FOLDER, e);
+        }
+    }
+
+    private static Stream<City> cities(long count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            City city = new City(id, "City " + id, "C" + (id % 100), 45.0 + id % 10, 9.0 + id % 10, id % 2 == 0,
+                    "https://example.org/cities/" + id);
+            List<ParkingZone> zones = new ArrayList<>(ZONES_PER_CITY);
+            for (int i = 1; i <= ZONES_PER_CITY; i++) {
+                zones.add(new ParkingZone("Zone " + id + "." + i, "Parking zone " + i, city));
+            }
+            city.setParkingZoneList(zones);
+            return city;
+        });
+    }
+
+    // Restores the city back reference skipped by EXPORT_GSON
+    private static City linkParkingZones(City city) {
+        city.getParkingZoneList().forEach(zone -> zone.setCity(city));
+        return city;
+    }
+
     /**
      * Demonstrates using Gson's JsonElement tree for manual JSON navigation.
      *
@@ -0,0 +1,144 @@
+package json;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a sequence of objects as a top-level JSON array or as NDJSON (one compact object per line),
+ * one object at a time. Only the object being serialized is held in memory, so exports of any size
+ * can be written from a lazily produced {@link Stream}.
+ *
+ * <p>Example usage:
+ * <pre>
+ * try (JsonStreamWriter&lt;City&gt; writer = JsonStreamWriter.open(path, City.class, Format.NDJSON, gson, false)) {
+ *     writer.writeAll(cities);
+ * }
+ * </pre>
+ */
+public class JsonStreamWriter<T> implements AutoCloseable {
+
+    public enum Format {
+        /** A single top-level array: {@code [{...},{...}]}. */
+        ARRAY,
+        /** Newline-delimited JSON: one object per line, no enclosing array. */
+        NDJSON
+    }
+
+    private final Writer out;
+    private final Type type;
+    private final Format format;
+    private final Gson gson;
+    private final JsonWriter arrayWriter;
+    private long count;
+
+    /**
+     * @param out         the destination, closed with this writer
+     * @param type        the type of the objects written
+     * @param format      array or NDJSON
+     * @param gson        the serializer, e.g. with exclusions for back references
+     * @param prettyPrint indents the array elements; ignored for NDJSON, which is always compact
+     * @throws IOException if the array cannot be started
+     */
+    public JsonStreamWriter(Writer out, Type type, Format format, Gson gson, boolean prettyPrint) throws IOException {
+        this.out = out;
+        this.type = type;
+        this.format = format;
+        this.gson = gson;
+        if (format == Format.ARRAY) {
+            arrayWriter = new JsonWriter(out);
+            if (prettyPrint) {
+                arrayWriter.setIndent("  ");
+            }
+            arrayWriter.beginArray();
+        } else {
+            arrayWriter = null;
+        }
+    }
+
+    /**
+     * Opens a writer on a UTF-8 file, creating directories if needed.
+     */
+    public static <T> JsonStreamWriter<T> open(Path file, Class<T> type, Format format, Gson gson,
+                                               boolean prettyPrint) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        try {
+            return new JsonStreamWriter<>(out, type, format, gson, prettyPrint);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes one object.
+     */
+    public void write(T item) throws IOException {
+        if (arrayWriter != null) {
+            gson.toJson(item, type, arrayWriter);
+        } else {
+            // A new writer per line: compact output whatever the Gson configuration, and no top-level value limit
+            gson.toJson(item, type, new JsonWriter(out));
+            out.write('\n');
+        }
+        count++;
+    }
+
+    /**
+     * Writes all the objects of a stream, consuming it lazily.
+     *
+     * @return the number of objects written by this call
+     */
+    public long writeAll(Stream<? extends T> items) throws IOException {
+        long before = count;
+        for (Iterator<? extends T> it = items.iterator(); it.hasNext(); ) {
+            write(it.next());
+        }
+        return count - before;
+    }
+
+    /**
+     * Returns the number of objects written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Ends the array, if any, and closes the destination.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (arrayWriter != null) {
+                arrayWriter.endArray();
+                arrayWriter.flush();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Same as {@link #write}, for use in lambdas.
+     */
+    public void writeUnchecked(T item) {
+        try {
+            write(item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,14 +2,28 @@ package json;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for JSON operations using Gson.
- * Provides common helper methods for JSON serialization and deserialization.
+ * Provides common helper methods for JSON serialization and deserialization,
+ * and streaming read/write of large top-level arrays and NDJSON files.
  */
 public abstract class UtilJson {
 
@@ -80,4 +94,117 @@ public abstract class UtilJson {
     protected static <T> T fromJson(String json, Class<T> classOfT) {
         return createGson().fromJson(json, classOfT);
     }
+
+    // ========================= Streaming =========================
+
+    /**
+     * Reads a file holding a top-level JSON array as a lazy stream of its elements.
+     * Only one element is held in memory at a time; close the stream to close the file.
+     *
+     * @param file the JSON file
+     * @param type the element type
+     * @param gson the deserializer
+     * @param <T>  the element type
+     * @return the elements in file order, null elements skipped
+     * @throws IOException if the file cannot be opened or does not start with an array
+     */
+    protected static <T> Stream<T> readArray(Path file, Type type, Gson gson) throws IOException {
+        Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        JsonReader json = gson.newJsonReader(reader);
+        try {
+            json.beginArray();
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+
+        Spliterator<T> elements = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (!done) {
+                        if (!json.hasNext()) {
+                            json.endArray();
+                            done = true;
+                            break;
+                        }
+                        T element = gson.fromJson(json, type);
+                        if (element != null) {
+                            action.accept(element);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading JSON array: " + file, e);
+                }
+            }
+        };
+        return StreamSupport.stream(elements, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close JSON file: {}", file, e);
+            }
+        });
+    }
+
+    /**
+     * Reads a top-level JSON array with a compact Gson instance.
+     *
+     * @see #readArray(Path, Type, Gson)
+     */
+    protected static <T> Stream<T> readArray(Path file, Class<T> classOfT) throws IOException {
+        return readArray(file, classOfT, createGson(false, false));
+    }
+
+    /**
+     * Reads an NDJSON file (one JSON value per line) as a lazy stream. Blank lines are skipped;
+     * close the stream to close the file.
+     *
+     * @param file the NDJSON file
+     * @param type the element type
+     * @param gson the deserializer
+     * @param <T>  the element type
+     * @return the elements in file order
+     * @throws IOException if the file cannot be opened
+     */
+    protected static <T> Stream<T> readNdjson(Path file, Type type, Gson gson) throws IOException {
+        return Files.lines(file, StandardCharsets.UTF_8)
+                .filter(UtilJson::isNotBlank)
+                .map(line -> gson.<T>fromJson(line, type));
+    }
+
+    /**
+     * Reads an NDJSON file with a compact Gson instance.
+     *
+     * @see #readNdjson(Path, Type, Gson)
+     */
+    protected static <T> Stream<T> readNdjson(Path file, Class<T> classOfT) throws IOException {
+        return readNdjson(file, classOfT, createGson(false, false));
+    }
+
+    /**
+     * Writes a stream to a file as a JSON array or NDJSON, consuming it lazily.
+     *
+     * @param file     the destination, overwritten if it exists
+     * @param items    the objects to write
+     * @param classOfT the type of the objects
+     * @param format   array or NDJSON
+     * @param gson     the serializer
+     * @param <T>      the type of the objects
+     * @return the number of objects written
+     * @throws IOException if writing fails
+     */
+    protected static <T> long writeStream(Path file, Stream<? extends T> items, Class<T> classOfT,
+                                          JsonStreamWriter.Format format, Gson gson) throws IOException {
+        try (JsonStreamWriter<T> writer = JsonStreamWriter.open(file, classOfT, format, gson, false)) {
+            long count = writer.writeAll(items);
+            logger.info("Streamed {} objects to {}", count, file);
+            return count;
+        }
+    }
 }
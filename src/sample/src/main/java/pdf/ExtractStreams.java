@@ -1,15 +1,31 @@
 package pdf;
 
 import com.itextpdf.text.exceptions.UnsupportedPdfException;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
 import com.itextpdf.text.pdf.PRStream;
+import com.itextpdf.text.pdf.PdfName;
 import com.itextpdf.text.pdf.PdfObject;
 import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Extracts stream objects from PDF files.
@@ -19,6 +35,9 @@ import java.nio.file.Paths;
  */
 public class ExtractStreams {
 
+    // PdfReader looks for the header in the first 1024 bytes and measures offsets from it
+    private static final int HEADER_SEARCH_LENGTH = 1024;
+
     // Default paths - uses user's home directory
     public static final String DATA_FOLDER = Paths.get(System.getProperty("user.home"), "pdf-output") + FileSystems.getDefault().getSeparator();
     public static final String SRC = DATA_FOLDER + "Attachment1.pdf";
@@ -59,4 +78,130 @@ public class ExtractStreams {
             reader.close();
         }
     }
+
+    /**
+     * Extracts the stream objects of a large PDF with memory independent of the file size.
+     * The file is memory-mapped and read in partial mode, so only one object at a time is loaded;
+     * streams are filtered by dictionary /Type and /Subtype without decoding them.
+     * Raw streams are copied file-to-file with {@link FileChannel#transferTo}, never touching the heap;
+     * decoded streams are held on the heap one at a time per pending write.
+     * Writes run on a bounded pool of NIO channels: {@code writers} source channels, opened once and
+     * borrowed by each write, plus the destination channel of each write, so at most {@code 2 * writers}
+     * channels are open.
+     * Note: raw copies of an encrypted PDF are written still encrypted.
+     *
+     * @param src     Source PDF file path
+     * @param dest    Destination pattern for output files (uses String.format with stream index)
+     * @param type    Required /Type (e.g. PdfName.XOBJECT), or null for any
+     * @param subtype Required /Subtype (e.g. PdfName.IMAGE), or null for any
+     * @param decode  Whether to write decoded data instead of the raw bytes
+     * @param writers Number of concurrent writes
+     * @return Number of streams written
+     */
+    public int parseMapped(String src, String dest, PdfName type, PdfName subtype, boolean decode, int writers)
+            throws IOException, InterruptedException {
+        PdfReader reader = new PdfReader(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().setUsePlainRandomAccess(false).createBestSource(src)), null);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        Semaphore pending = new Semaphore(writers * 2);
+        AtomicInteger written = new AtomicInteger();
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        BlockingQueue<FileChannel> sources = new ArrayBlockingQueue<>(writers);
+        try {
+            for (int i = 0; i < writers; i++) {
+                sources.add(FileChannel.open(Paths.get(src), StandardOpenOption.READ));
+            }
+            // Stream offsets are relative to the %PDF header, which is not always at byte 0
+            long headerOffset = headerOffset(sources.peek());
+            for (int i = 1; i < reader.getXrefSize() && failure.get() == null; i++) {
+                PdfObject obj = reader.getPdfObjectRelease(i);
+                if (obj == null || !obj.isStream()) {
+                    continue;
+                }
+                PRStream stream = (PRStream) obj;
+                if ((type != null && !type.equals(stream.getAsName(PdfName.TYPE)))
+                        || (subtype != null && !subtype.equals(stream.getAsName(PdfName.SUBTYPE)))) {
+                    continue;
+                }
+
+                int number = i;
+                Path target = Paths.get(String.format(dest, i));
+                long offset = headerOffset + stream.getOffset();
+                long length = stream.getLength();
+                byte[] bytes = decode ? decodedBytes(stream) : null;
+                pending.acquire();
+                executor.execute(() -> {
+                    // Never empty: no more tasks run at once than there are pooled channels
+                    FileChannel source = sources.poll();
+                    try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        if (bytes != null) {
+                            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                            while (buffer.hasRemaining()) {
+                                out.write(buffer);
+                            }
+                        } else {
+                            // Truncated file or oversized /Length: transferTo would return 0 forever
+                            if (offset + length > source.size()) {
+                                throw new IOException("Stream " + number + " ends past the end of the file: offset "
+                                        + offset + ", length " + length + ", file size " + source.size());
+                            }
+                            long position = 0;
+                            while (position < length) {
+                                long transferred = source.transferTo(offset + position, length - position, out);
+                                if (transferred <= 0) {
+                                    throw new IOException("Stream " + number + " truncated after " + position
+                                            + " of " + length + " bytes");
+                                }
+                                position += transferred;
+                            }
+                        }
+                        written.incrementAndGet();
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        sources.add(source);
+                        pending.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+            reader.close();
+            for (FileChannel source : sources) {
+                source.close();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        System.out.println("Mapped stream extraction completed: " + written.get() + " streams written");
+        return written.get();
+    }
+
+    /**
+     * Finds the %PDF header the way {@link com.itextpdf.text.pdf.PRTokeniser#getHeaderOffset()} does.
+     */
+    private static long headerOffset(FileChannel source) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SEARCH_LENGTH);
+        while (buffer.hasRemaining()) {
+            // Positional read: the file position follows the buffer position
+            if (source.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        String start = new String(buffer.array(), 0, buffer.position(), StandardCharsets.ISO_8859_1);
+        int index = start.indexOf("%PDF-");
+        return Math.max(index, 0);
+    }
+
+    private static byte[] decodedBytes(PRStream stream) throws IOException {
+        try {
+            return PdfReader.getStreamBytes(stream);
+        } catch (UnsupportedPdfException e) {
+            return PdfReader.getStreamBytesRaw(stream);
+        }
+    }
 }
@@ -3,10 +3,13 @@ package pdf;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.BaseFont;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * Demonstrates PDF generation using iText library.
@@ -20,6 +23,38 @@ public class Generate extends UtilPdf {
     public static void main(String[] args) {
         Generate g = new Generate();
         g.generateDocumentWithUtilities();
+        g.generateBatch(1_000, 4);
+    }
+
+    /**
+     * Generates many small documents concurrently, sharing fonts and page-event handlers.
+     *
+     * @param count   Number of documents
+     * @param threads Number of rendering threads
+     */
+    public void generateBatch(int count, int threads) {
+        File folder = new File(DATA_FOLDER + "Batch");
+        folder.mkdirs();
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(threads, threads * 2)) {
+            PdfFontPool fonts = generator.getFonts();
+            Font title = fonts.font(BaseFont.TIMES_BOLD, 12, Font.NORMAL);
+            Font text = fonts.font(BaseFont.TIMES_ROMAN, 11, Font.NORMAL);
+
+            PdfBatchGenerator.Template<Integer, MyEvent> template = generator.template("attachment",
+                    MyEvent::new, e -> e.setCanAdd(false), (document, e, n) -> {
+                        Paragraph paragraph = new Paragraph("Attachment " + n, title);
+                        paragraph.setAlignment(Element.ALIGN_RIGHT);
+                        paragraph.setSpacingAfter(20f);
+                        document.add(paragraph);
+                        document.add(new Paragraph("The undersigned John, applicant number " + n, text));
+                        e.setCanAdd(true);
+                    });
+            generator.generateAll(template, IntStream.rangeClosed(1, count).iterator(),
+                    n -> folder.toPath().resolve("Attachment" + n + ".pdf"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Batch generation interrupted", e);
+        }
     }
 
     /**
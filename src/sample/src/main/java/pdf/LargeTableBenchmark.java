@@ -0,0 +1,93 @@
+package pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfPTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Peak heap versus row count: whole table built in memory before {@code document.add}
+ * (the createOnlyTable/createTableAndCells approach) versus {@link UtilPdf#createLargeTable}.
+ * Run with a large heap (e.g. -Xmx2g) so that the in-memory variant completes.
+ */
+public class LargeTableBenchmark extends UtilPdf {
+
+    private static final int[] ROW_COUNTS = {10_000, 50_000, 100_000};
+    private static final int COLUMNS = 5;
+
+    public static void main(String[] args) throws IOException, DocumentException {
+        System.out.println("=== Large table benchmark (" + COLUMNS + " columns) ===");
+        for (int rows : ROW_COUNTS) {
+            long inMemory = measure(rows, false);
+            long streaming = measure(rows, true);
+            System.out.printf("%7d rows: in memory %8.1f MB  streaming %8.1f MB%n",
+                    rows, inMemory / 1048576d, streaming / 1048576d);
+        }
+    }
+
+    private static long measure(int rows, boolean streaming) throws IOException, DocumentException {
+        File file = File.createTempFile("large-table", ".pdf");
+        try {
+            System.gc();
+            resetPeaks();
+            Document d = initialize(file.getPath(), null);
+            Map<String, Object> options = new HashMap<>();
+            String[] headers = {"S/N", "Name", "Surname", "City", "Amount"};
+            float[] widths = {1, 2, 2, 2, 1};
+            if (streaming) {
+                createLargeTable(d, COLUMNS, 100, widths, headers, TIMES_ROMAN_10_BOLD, rows(rows), TIMES_ROMAN_10,
+                        DEFAULT_TABLE_CHUNK_ROWS, options);
+            } else {
+                PdfPTable table = createOnlyTable(d, COLUMNS, 100, widths, options);
+                for (String header : headers) {
+                    createCell(d, table, header, TIMES_ROMAN_10_BOLD, options);
+                }
+                table.setHeaderRows(1);
+                for (Iterator<String[]> it = rows(rows); it.hasNext(); ) {
+                    for (String text : it.next()) {
+                        createCell(d, table, text, TIMES_ROMAN_10, options);
+                    }
+                }
+                d.add(table);
+            }
+            finalizePdf(d);
+            return peakHeap();
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Iterator<String[]> rows(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new String[]{String.valueOf(i), "Name " + i, "Surname " + i, "City " + (i % 100), i + ".00"})
+                .iterator();
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Sum of the per-pool peaks: an upper bound of the actual peak, good enough to compare the two modes
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,121 @@
+package pdf;
+
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Extracts the text of a PDF on several threads.
+ * The page range is split in small chunks dealt round-robin to the workers; each worker opens its own
+ * {@link PdfReader} in partial mode on a memory-mapped source of the file, so all readers share the same
+ * OS pages and only the objects of the pages being parsed are loaded.
+ * Results are delivered in page order as soon as each chunk is ready.
+ */
+public class ParallelTextExtractor {
+
+    public static final int DEFAULT_CHUNK_PAGES = 8;
+
+    private final int threads;
+    private final int chunkPages;
+
+    public ParallelTextExtractor(int threads) {
+        this(threads, DEFAULT_CHUNK_PAGES);
+    }
+
+    public ParallelTextExtractor(int threads, int chunkPages) {
+        this.threads = Math.max(threads, 1);
+        this.chunkPages = Math.max(chunkPages, 1);
+    }
+
+    /**
+     * Text of a single page.
+     */
+    public record PageText(int page, String text) {
+    }
+
+    /**
+     * Extracts all pages of a file.
+     * Pages are emitted in order while the later ones are still being parsed;
+     * closing the stream stops the workers.
+     *
+     * @param filename Path to the source PDF file
+     * @return Ordered stream of page texts
+     */
+    public Stream<PageText> pages(String filename) throws IOException {
+        int totalPages;
+        PdfReader probe = open(filename);
+        try {
+            totalPages = probe.getNumberOfPages();
+        } finally {
+            probe.close();
+        }
+
+        List<CompletableFuture<List<PageText>>> chunks = new ArrayList<>();
+        for (int first = 1; first <= totalPages; first += chunkPages) {
+            chunks.add(new CompletableFuture<>());
+        }
+        int workers = Math.min(threads, Math.max(chunks.size(), 1));
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            executor.execute(() -> extractChunks(filename, totalPages, chunks, worker, workers));
+        }
+        executor.shutdown();
+
+        return chunks.stream()
+                .flatMap(chunk -> {
+                    try {
+                        return chunk.join().stream();
+                    } catch (CompletionException e) {
+                        throw e.getCause() instanceof IOException io ? new UncheckedIOException(io) : e;
+                    }
+                })
+                .onClose(executor::shutdownNow);
+    }
+
+    private void extractChunks(String filename, int totalPages, List<CompletableFuture<List<PageText>>> chunks,
+                               int worker, int workers) {
+        PdfReader reader = null;
+        try {
+            reader = open(filename);
+            for (int c = worker; c < chunks.size(); c += workers) {
+                if (Thread.currentThread().isInterrupted()) {
+                    chunks.get(c).cancel(false);
+                    continue;
+                }
+                int first = c * chunkPages + 1;
+                int last = Math.min(first + chunkPages - 1, totalPages);
+                List<PageText> texts = new ArrayList<>(last - first + 1);
+                for (int page = first; page <= last; page++) {
+                    texts.add(new PageText(page, PdfTextExtractor.getTextFromPage(reader, page)));
+                }
+                chunks.get(c).complete(texts);
+            }
+        } catch (Exception e) {
+            for (int c = worker; c < chunks.size(); c += workers) {
+                chunks.get(c).completeExceptionally(e);
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    private static PdfReader open(String filename) throws IOException {
+        // Partial read on a mapped file: only the xref is read up front
+        return new PdfReader(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().setUsePlainRandomAccess(false).createBestSource(filename)), null);
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 /**
  * Parses PDF files and extracts text content.
@@ -48,4 +49,24 @@ public class Parse {
             reader.close();
         }
     }
+
+    /**
+     * Parses a PDF file on several threads and writes the text in page order,
+     * with the same layout as {@link #parse(String)}.
+     *
+     * @param filename Path to the source PDF file
+     * @param threads  Number of worker threads
+     */
+    public void parseParallel(String filename, int threads) throws IOException {
+        int pages = 0;
+        try (FileOutputStream fos = new FileOutputStream(DEST);
+             Stream<ParallelTextExtractor.PageText> texts = new ParallelTextExtractor(threads).pages(filename)) {
+            for (ParallelTextExtractor.PageText pageText : (Iterable<ParallelTextExtractor.PageText>) texts::iterator) {
+                fos.write(pageText.text().getBytes(StandardCharsets.UTF_8));
+                fos.write(("\n--- Page " + pageText.page() + " ---\n").getBytes(StandardCharsets.UTF_8));
+                pages++;
+            }
+        }
+        System.out.println("Parallel text extraction completed: " + pages + " pages processed");
+    }
 }
@@ -0,0 +1,327 @@
+package pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Generation engine for large numbers of small PDF documents.
+ * Documents are rendered concurrently on a fixed pool of threads, with at most {@code maxInFlight}
+ * documents open at the same time. All templates share the same {@link PdfFontPool}, and each template keeps
+ * a pool of page-event handlers (e.g. {@link MyEvent}) that are reset and reused instead of recreated.
+ * Throughput is tracked per template.
+ */
+public class PdfBatchGenerator implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(PdfBatchGenerator.class.getName());
+
+    private final PdfFontPool fonts;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Map<String, Template<?, ?>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads     Number of rendering threads
+     * @param maxInFlight Maximum number of documents open at the same time
+     */
+    public PdfBatchGenerator(int threads, int maxInFlight) {
+        this(new PdfFontPool(), threads, maxInFlight);
+    }
+
+    public PdfBatchGenerator(PdfFontPool fonts, int threads, int maxInFlight) {
+        this.fonts = fonts;
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+        this.maxInFlight = Math.max(maxInFlight, 1);
+    }
+
+    /**
+     * Renders the content of one document.
+     *
+     * @param <R> Record type
+     * @param <E> Page event type
+     */
+    @FunctionalInterface
+    public interface Renderer<R, E extends PdfPageEventHelper> {
+        void render(Document document, E event, R record) throws DocumentException;
+    }
+
+    /**
+     * Creates a template without page events.
+     */
+    public <R> Template<R, PdfPageEventHelper> template(String name, Renderer<R, PdfPageEventHelper> renderer) {
+        return template(name, null, event -> { }, renderer);
+    }
+
+    /**
+     * Creates a template, or returns the existing one with the same name.
+     *
+     * @param name     Template name, used for the metrics
+     * @param events   Creates a page-event handler when the pool is empty, may be null
+     * @param reset    Restores a pooled handler to its initial state before it is reused
+     * @param renderer Renders the content of a document
+     * @return The template
+     */
+    @SuppressWarnings("unchecked")
+    public <R, E extends PdfPageEventHelper> Template<R, E> template(String name, Supplier<E> events,
+                                                                      Consumer<? super E> reset, Renderer<R, E> renderer) {
+        return (Template<R, E>) templates.computeIfAbsent(name, n -> new Template<>(n, events, reset, renderer));
+    }
+
+    /**
+     * Renders all records on the pool and waits for the batch to finish.
+     * Failed documents, including records whose output file cannot be resolved, are logged, counted and deleted.
+     *
+     * @param template Template to render
+     * @param records  Records, one document each
+     * @param output   Output file of a record
+     * @return The statistics of this batch, timed from its start
+     */
+    public <R> TemplateStats generateAll(Template<R, ?> template, Iterator<? extends R> records,
+                                         Function<? super R, Path> output) throws InterruptedException {
+        TemplateStats before = template.getStats();
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(maxInFlight);
+        try {
+            while (records.hasNext()) {
+                R record = records.next();
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        Path file = null;
+                        try {
+                            file = output.apply(record);
+                            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                                template.write(record, out);
+                            }
+                        } catch (IOException | DocumentException | RuntimeException e) {
+                            logger.error("Error generating " + (file != null ? file : "output of " + record)
+                                    + " with template " + template.name, e);
+                            template.failures.increment();
+                            if (file != null) {
+                                deleteQuietly(file);
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } finally {
+            // All permits back: every document of this batch is done
+            permits.acquireUninterruptibly(maxInFlight);
+            permits.release(maxInFlight);
+            template.activeNanos.add(System.nanoTime() - start);
+        }
+
+        TemplateStats stats = template.getStats().since(before);
+        logger.info(stats + ", " + fonts);
+        return stats;
+    }
+
+    /**
+     * Renders a single record on the calling thread.
+     *
+     * @param template Template to render
+     * @param record   The record
+     * @param out      Destination, not closed
+     */
+    public <R> void generate(Template<R, ?> template, R record, OutputStream out) throws DocumentException {
+        long start = System.nanoTime();
+        try {
+            template.write(record, out);
+        } finally {
+            template.activeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public PdfFontPool getFonts() {
+        return fonts;
+    }
+
+    /**
+     * Gets the statistics of all templates.
+     */
+    public List<TemplateStats> getStats() {
+        Collection<Template<?, ?>> all = templates.values();
+        List<TemplateStats> stats = new ArrayList<>(all.size());
+        for (Template<?, ?> template : all) {
+            stats.add(template.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Cannot delete " + file, e);
+        }
+    }
+
+    /**
+     * A document template: renderer, page-event pool and metrics.
+     *
+     * @param <R> Record type
+     * @param <E> Page event type
+     */
+    public static final class Template<R, E extends PdfPageEventHelper> {
+
+        private final String name;
+        private final Supplier<E> events;
+        private final Consumer<? super E> reset;
+        private final Renderer<R, E> renderer;
+        private final Queue<E> idleEvents = new ConcurrentLinkedQueue<>();
+        private Rectangle pageSize = PageSize.A4;
+
+        private final LongAdder documents = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder renderNanos = new LongAdder();
+        // Wall time spent in batches and single renders, not since creation: idle time does not lower docs/s
+        private final LongAdder activeNanos = new LongAdder();
+
+        private Template(String name, Supplier<E> events, Consumer<? super E> reset, Renderer<R, E> renderer) {
+            this.name = name;
+            this.events = events;
+            this.reset = reset;
+            this.renderer = renderer;
+        }
+
+        /**
+         * Sets the page size of the documents, A4 by default.
+         */
+        public Template<R, E> pageSize(Rectangle pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private void write(R record, OutputStream out) throws DocumentException {
+            long start = System.nanoTime();
+            E event = borrowEvent();
+            Document document = new Document(pageSize);
+            try {
+                PdfWriter writer = PdfWriter.getInstance(document, out);
+                if (event != null) {
+                    writer.setPageEvent(event);
+                }
+                document.open();
+                renderer.render(document, event, record);
+                int pageCount = writer.getPageNumber();
+                document.close();
+                pages.add(pageCount);
+                documents.increment();
+            } finally {
+                if (document.isOpen()) {
+                    closeFailed(document);
+                }
+                if (event != null) {
+                    idleEvents.offer(event);
+                }
+                renderNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        // Releases the writer of a document whose rendering failed; the output is discarded anyway
+        private void closeFailed(Document document) {
+            try {
+                document.close();
+            } catch (RuntimeException e) {
+                logger.debug("Error closing failed document of template " + name, e);
+            }
+        }
+
+        private E borrowEvent() {
+            if (events == null) {
+                return null;
+            }
+            E event = idleEvents.poll();
+            if (event == null) {
+                event = events.get();
+            }
+            reset.accept(event);
+            return event;
+        }
+
+        private TemplateStats getStats() {
+            return new TemplateStats(name, documents.sum(), failures.sum(), pages.sum(),
+                    renderNanos.sum(), activeNanos.sum() / 1_000_000, idleEvents.size());
+        }
+    }
+
+    /**
+     * Statistics of a template, cumulative or of a single batch.
+     *
+     * @param documents     Documents written
+     * @param failures      Documents failed
+     * @param pages         Pages written
+     * @param renderNanos   Rendering time summed over all threads
+     * @param elapsedMillis Wall time spent generating: batches and single renders, not idle time
+     * @param pooledEvents  Page-event handlers currently idle in the pool
+     */
+    public record TemplateStats(String template, long documents, long failures, long pages,
+                                long renderNanos, long elapsedMillis, int pooledEvents) {
+
+        /**
+         * Returns the difference from an earlier snapshot of the same template.
+         */
+        TemplateStats since(TemplateStats earlier) {
+            return new TemplateStats(template, documents - earlier.documents, failures - earlier.failures,
+                    pages - earlier.pages, renderNanos - earlier.renderNanos,
+                    elapsedMillis - earlier.elapsedMillis, pooledEvents);
+        }
+
+        public double documentsPerSecond() {
+            return elapsedMillis > 0 ? documents * 1000d / elapsedMillis : documents;
+        }
+
+        public double averageRenderMillis() {
+            return documents > 0 ? renderNanos / 1_000_000d / documents : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Template " + template + ": " + documents + " documents (" + failures + " failed), " + pages
+                    + " pages, " + String.format("%.1f docs/s, %.2f ms/doc", documentsPerSecond(), averageRenderMillis())
+                    + ", " + pooledEvents + " pooled events";
+        }
+    }
+}
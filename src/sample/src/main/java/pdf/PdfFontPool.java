@@ -0,0 +1,92 @@
+package pdf;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.pdf.BaseFont;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, thread-safe pool of fonts for PDF generation.
+ * Each {@link BaseFont} (the parsed font program, metrics and, for embedded fonts, the font file) is created
+ * once and reused by every document; each writer only records the glyphs it uses and embeds its own subset.
+ * {@link Font} instances are interned too and always carry their base font, so iText never has to resolve
+ * a font family again while rendering.
+ * Fonts handed out by the pool are shared: do not modify them.
+ */
+public final class PdfFontPool {
+
+    private final Map<BaseFontKey, BaseFont> baseFonts = new ConcurrentHashMap<>();
+    private final Map<FontKey, Font> fonts = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a standard (not embedded) base font, e.g. {@link BaseFont#TIMES_ROMAN}.
+     */
+    public BaseFont baseFont(String name) {
+        return baseFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+    }
+
+    /**
+     * Gets a base font, creating it on first use.
+     *
+     * @param name     Standard font name or path to a font file
+     * @param encoding Encoding, e.g. {@link BaseFont#IDENTITY_H} for embedded Unicode fonts
+     * @param embedded Whether the font subset is embedded in the documents
+     * @return The shared base font
+     */
+    public BaseFont baseFont(String name, String encoding, boolean embedded) {
+        return baseFonts.computeIfAbsent(new BaseFontKey(name, encoding, embedded), key -> {
+            try {
+                return BaseFont.createFont(key.name, key.encoding, key.embedded);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load font " + key.name, e);
+            } catch (DocumentException e) {
+                throw new ExceptionConverter(e);
+            }
+        });
+    }
+
+    /**
+     * Gets a black font of a standard base font.
+     *
+     * @param name  Standard font name, e.g. {@link BaseFont#TIMES_BOLD}
+     * @param size  Font size
+     * @param style Font style, e.g. {@link Font#UNDERLINE}
+     */
+    public Font font(String name, float size, int style) {
+        return font(baseFont(name), size, style, BaseColor.BLACK);
+    }
+
+    /**
+     * Gets a font of a base font created by this pool.
+     */
+    public Font font(BaseFont baseFont, float size, int style, BaseColor color) {
+        return fonts.computeIfAbsent(new FontKey(baseFont, size, style, color),
+                key -> new Font(key.baseFont, key.size, key.style, key.color));
+    }
+
+    public int getBaseFontCount() {
+        return baseFonts.size();
+    }
+
+    public int getFontCount() {
+        return fonts.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PdfFontPool [baseFonts=" + baseFonts.size() + ", fonts=" + fonts.size() + "]";
+    }
+
+    private record BaseFontKey(String name, String encoding, boolean embedded) {
+    }
+
+    // BaseFont has identity equality, which is what we want: one entry per pooled base font
+    private record FontKey(BaseFont baseFont, float size, int style, BaseColor color) {
+    }
+}
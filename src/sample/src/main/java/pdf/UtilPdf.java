@@ -11,6 +11,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -30,6 +31,9 @@ public abstract class UtilPdf {
     protected static final BaseColor GREEN_THIRD_YEAR = new BaseColor(168, 208, 138);
     protected static final BaseColor PEACH_COLOR = new BaseColor(251, 228, 214);
 
+    // Rows added between two flushes of a large table
+    protected static final int DEFAULT_TABLE_CHUNK_ROWS = 200;
+
     // Font constants
     protected static final Font TIMES_ROMAN_12 = new Font(Font.FontFamily.TIMES_ROMAN, 12, Font.NORMAL);
     protected static final Font TIMES_ROMAN_12_BOLD = new Font(Font.FontFamily.TIMES_ROMAN, 12, Font.BOLD);
@@ -205,6 +209,60 @@ public abstract class UtilPdf {
         return table;
     }
 
+    /**
+     * Creates and adds a table whose rows are streamed from an iterator.
+     * The table is an incomplete {@link com.itextpdf.text.LargeElement}: every {@code chunkRows} rows it is added
+     * to the document, which writes the completed rows and drops them from memory, so only one chunk is held
+     * at a time regardless of the row count. The header row is repeated on every page.
+     *
+     * @param d               the document
+     * @param columns         number of columns
+     * @param widthPercentage table width
+     * @param columnWidths    relative column widths
+     * @param headers         header texts, one per column
+     * @param headerFont      header font
+     * @param rows            row texts, one array of {@code columns} texts per row
+     * @param cellFont        cell font
+     * @param chunkRows       rows added between two flushes, at least 1
+     * @param options         table and cell options
+     * @return the number of data rows written
+     * @throws IllegalArgumentException if chunkRows is not positive
+     */
+    protected static long createLargeTable(Document d, int columns, int widthPercentage, float[] columnWidths,
+                                           String[] headers, Font headerFont, Iterator<String[]> rows, Font cellFont,
+                                           int chunkRows, Map<String, Object> options) {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("chunkRows must be positive: " + chunkRows);
+        }
+        long written = 0;
+        PdfPTable table = createOnlyTable(d, columns, widthPercentage, columnWidths, options);
+        if (table == null) {
+            return written;
+        }
+        try {
+            table.setComplete(false);
+            if (headers != null) {
+                for (String header : headers) {
+                    createCell(d, table, header, headerFont, options);
+                }
+                table.setHeaderRows(1);
+            }
+            while (rows.hasNext()) {
+                for (String text : rows.next()) {
+                    createCell(d, table, text, cellFont, options);
+                }
+                if (++written % chunkRows == 0) {
+                    d.add(table);
+                }
+            }
+            table.setComplete(true);
+            d.add(table);
+        } catch (DocumentException e) {
+            logger.error("Error creating large table after " + written + " rows", e);
+        }
+        return written;
+    }
+
     /**
      * Creates and adds cells to a table.
      */
@@ -0,0 +1,84 @@
+package pdfsign;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Output stream for an incremental save into the file being updated.
+ * The PDF writer re-emits the whole original file before the update section: those first {@code skip} bytes
+ * are counted and dropped, and only the update is written to the channel, at its current position.
+ * Closing the stream flushes it but leaves the channel open.
+ */
+final class AppendOnlyOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long skip;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long skipped;
+    private long appended;
+
+    /**
+     * @param channel channel positioned at the end of the original file
+     * @param skip    length of the original file
+     */
+    AppendOnlyOutputStream(FileChannel channel, long skip) {
+        this.channel = channel;
+        this.skip = skip;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (skipped < skip) {
+            int dropped = (int) Math.min(len, skip - skipped);
+            skipped += dropped;
+            off += dropped;
+            len -= dropped;
+        }
+        while (len > 0) {
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        if (skipped < skip) {
+            throw new IOException("Incremental save wrote " + skipped + " bytes of original content instead of " + skip);
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the file.
+     */
+    long getAppended() {
+        return appended;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            appended += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,32 @@
+package pdfsign;
+
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * A signing key that signs several payloads in a single operation, such as an HSM or remote signing
+ * service with one session or round trip per batch.
+ * The private key never leaves the implementation; only the payloads and signatures cross this interface.
+ */
+public interface BatchKeySigner {
+
+    /**
+     * Signs a batch of payloads.
+     *
+     * @param payloads the data to sign, e.g. DER encoded CMS signed attributes
+     * @return one signature per payload, in the same order
+     * @throws GeneralSecurityException if the key operation fails
+     */
+    List<byte[]> signAll(List<byte[]> payloads) throws GeneralSecurityException;
+
+    /**
+     * Returns the JCA signature algorithm, e.g. "SHA256withRSA".
+     */
+    String getSignatureAlgorithm();
+
+    /**
+     * Returns the certificate chain of the key, signer certificate first.
+     */
+    X509Certificate[] getCertificateChain();
+}
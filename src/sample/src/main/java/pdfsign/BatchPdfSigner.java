@@ -0,0 +1,173 @@
+package pdfsign;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Signs large batches of PDF documents in parallel with a single {@link PdfSigner}.
+ * The keystore, private key, certificate store and digest provider are loaded once by the signer
+ * and shared by all threads; each document is read once and written once.
+ * At most {@code concurrency} documents are being signed at the same time.
+ *
+ * <p>Example usage:
+ * <pre>
+ * BatchPdfSigner batch = new BatchPdfSigner(new PdfSigner(), 8);
+ * BatchReport report = batch.signAll(sources.iterator(), source -> outputDir.resolve(source.getFileName()));
+ * </pre>
+ */
+public class BatchPdfSigner {
+
+    private final PdfSigner signer;
+    private final int concurrency;
+
+    /**
+     * @param signer      the signer, holding the key material
+     * @param concurrency number of documents signed at the same time
+     */
+    public BatchPdfSigner(PdfSigner signer, int concurrency) {
+        this.signer = signer;
+        this.concurrency = Math.max(concurrency, 1);
+    }
+
+    /**
+     * Signs all documents and waits for the batch to finish.
+     * A failed document does not stop the batch; its destination is deleted and the failure is reported.
+     *
+     * @param sources     the PDFs to sign
+     * @param destination the signed file of a source
+     * @return the batch report
+     * @throws InterruptedException if interrupted while waiting for the batch
+     */
+    public BatchReport signAll(Iterator<Path> sources, Function<Path, Path> destination) throws InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        Semaphore permits = new Semaphore(concurrency * 2);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong signed = new AtomicLong();
+        try {
+            while (sources.hasNext()) {
+                Path source = sources.next();
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        long begin = System.nanoTime();
+                        // Resolved inside the try: a failing mapper must still release its permit
+                        Path target = null;
+                        try {
+                            target = destination.apply(source);
+                            signer.signPdf(source, target);
+                            signed.incrementAndGet();
+                            latencies.add(System.nanoTime() - begin);
+                        } catch (IOException | RuntimeException e) {
+                            failures.add(source + ": " + e.getMessage());
+                            if (target != null) {
+                                deleteQuietly(target);
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        return BatchReport.of(signed.get(), failures, latencies, System.nanoTime() - start);
+    }
+
+    /**
+     * Signs all PDFs of a directory into another directory, keeping the file names.
+     *
+     * @param sourceDir      directory with the PDFs to sign
+     * @param destinationDir directory for the signed PDFs, created if needed
+     * @return the batch report
+     */
+    public BatchReport signDirectory(Path sourceDir, Path destinationDir) throws IOException, InterruptedException {
+        Files.createDirectories(destinationDir);
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            Iterator<Path> sources = files
+                    .filter(file -> file.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .iterator();
+            return signAll(sources, source -> destinationDir.resolve(source.getFileName()));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the failure is already reported
+        }
+    }
+
+    /**
+     * Outcome of a batch: signed documents, failures, throughput and per-document latency.
+     */
+    public record BatchReport(long signed, List<String> failures, long elapsedMillis,
+                              double p50LatencyMillis, double p99LatencyMillis, double maxLatencyMillis) {
+
+        static BatchReport of(long signed, List<String> failures, List<Long> latencies, long elapsedNanos) {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+            return new BatchReport(signed, List.copyOf(failures), elapsedNanos / 1_000_000,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+
+        public double documentsPerSecond() {
+            return elapsedMillis > 0 ? signed * 1000d / elapsedMillis : signed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Signed %d documents (%d failed) in %d ms, %.1f docs/s, latency p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    signed, failures.size(), elapsedMillis, documentsPerSecond(),
+                    p50LatencyMillis, p99LatencyMillis, maxLatencyMillis);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: BatchPdfSigner <source-dir> <destination-dir> [concurrency]");
+            System.out.println("Key material is configured as for PdfSigner (-Dpdf.signer.* properties)");
+            return;
+        }
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try (PdfSigner signer = new PdfSigner()) {
+            BatchReport report = new BatchPdfSigner(signer, concurrency).signDirectory(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println(report);
+            report.failures().forEach(failure -> System.err.println("Failed: " + failure));
+        }
+    }
+}
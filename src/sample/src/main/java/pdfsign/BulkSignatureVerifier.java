@@ -0,0 +1,236 @@
+package pdfsign;
+
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.util.Store;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Verifies the CMS (.p7m) signatures of whole archives in parallel.
+ * Signer certificates go through a shared {@link CertificateCache}, so subject fields, signature verifiers
+ * and chain validation (including revocation) are done once per distinct certificate.
+ * Results are returned as values; nothing is printed.
+ *
+ * <p>Example usage:
+ * <pre>
+ * BulkSignatureVerifier verifier = new BulkSignatureVerifier(8);
+ * List&lt;VerificationResult&gt; results = verifier.verifyDirectory(Paths.get("/archive/2024"));
+ * </pre>
+ */
+public class BulkSignatureVerifier {
+
+    private static final String SIGNED_FILE_EXTENSION = ".p7m";
+
+    private final CertificateCache certificates;
+    private final int threads;
+
+    public BulkSignatureVerifier(int threads) {
+        this(new CertificateCache(), threads);
+    }
+
+    /**
+     * @param certificates cache of signer certificates, may be shared between verifiers
+     * @param threads      number of files verified at the same time
+     */
+    public BulkSignatureVerifier(CertificateCache certificates, int threads) {
+        this.certificates = certificates;
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Verifies all .p7m files of a directory tree.
+     *
+     * @param directory the archive root
+     * @return one result per file, in file walk order
+     */
+    public List<VerificationResult> verifyDirectory(Path directory) throws IOException, InterruptedException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return verifyAll(files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().toLowerCase().endsWith(SIGNED_FILE_EXTENSION)));
+        }
+    }
+
+    /**
+     * Verifies files in parallel. At most {@code threads * 2} files are loaded at the same time.
+     *
+     * @param files the signed files
+     * @return one result per file, in stream order
+     */
+    public List<VerificationResult> verifyAll(Stream<Path> files) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Semaphore permits = new Semaphore(threads * 2);
+        List<CompletableFuture<VerificationResult>> futures = new ArrayList<>();
+        try {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                permits.acquire();
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return verify(file);
+                    } finally {
+                        permits.release();
+                    }
+                }, executor));
+            }
+            List<VerificationResult> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<VerificationResult> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verifies a single file; read, parse and verification errors are reported in the result,
+     * so one malformed file cannot abort a batch.
+     */
+    public VerificationResult verify(Path file) {
+        try {
+            return verify(file, Files.readAllBytes(file));
+        } catch (IOException e) {
+            return VerificationResult.failed(file, "Cannot read file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return VerificationResult.failed(file, "Verification failed: " + e);
+        }
+    }
+
+    /**
+     * Verifies signed content. Base64 content is detected and decoded.
+     *
+     * @param file     the file name reported in the result
+     * @param contents the DER or Base64 encoded CMS signed data
+     * @return the verification result
+     */
+    public VerificationResult verify(Path file, byte[] contents) {
+        CMSSignedData signature;
+        try {
+            signature = new CMSSignedData(isDer(contents) ? contents : Base64.decode(contents));
+        } catch (CMSException | RuntimeException e) {
+            return VerificationResult.failed(file, "Invalid CMS signature: " + e.getMessage());
+        }
+
+        try {
+            Store<X509CertificateHolder> certStore = signature.getCertificates();
+            Collection<SignerInformation> signers = signature.getSignerInfos().getSigners();
+            List<SignerResult> results = new ArrayList<>(signers.size());
+            for (SignerInformation signer : signers) {
+                results.add(verifySigner(signer, certStore));
+            }
+            return new VerificationResult(file, List.copyOf(results), null);
+        } catch (RuntimeException e) {
+            // Malformed signer infos or certificates surface as unchecked exceptions from BouncyCastle
+            return VerificationResult.failed(file, "Invalid CMS signature: " + e);
+        }
+    }
+
+    private SignerResult verifySigner(SignerInformation signer, Store<X509CertificateHolder> certStore) {
+        Collection<X509CertificateHolder> matches = certStore.getMatches(signer.getSID());
+        if (matches.isEmpty()) {
+            return SignerResult.failed("Signer certificate not found");
+        }
+        try {
+            CertificateCache.CachedCertificate certificate = certificates.get(matches.iterator().next(), certStore);
+            boolean valid;
+            String error = null;
+            try {
+                valid = signer.verify(certificate.verifier());
+            } catch (CMSException e) {
+                valid = false;
+                error = e.getMessage();
+            }
+            X509CertificateHolder holder = certificate.holder();
+            return new SignerResult(certificate.fingerprint(), certificate.fullName(), certificate.givenName(),
+                    certificate.surname(), certificate.fiscalCode(), holder.getNotBefore().toInstant(),
+                    holder.getNotAfter().toInstant(), certificate.chainStatus(), valid, error);
+        } catch (IOException e) {
+            return SignerResult.failed(e.getMessage());
+        } catch (RuntimeException e) {
+            return SignerResult.failed("Verification failed: " + e);
+        }
+    }
+
+    // DER signed data starts with a SEQUENCE tag; Base64 text never does
+    private static boolean isDer(byte[] contents) {
+        return contents.length > 0 && contents[0] == 0x30;
+    }
+
+    public CertificateCache getCertificates() {
+        return certificates;
+    }
+
+    /**
+     * Result of a signed file.
+     *
+     * @param signers one entry per signer
+     * @param error   file-level error (unreadable or not a CMS signature), null otherwise
+     */
+    public record VerificationResult(Path file, List<SignerResult> signers, String error) {
+
+        static VerificationResult failed(Path file, String error) {
+            return new VerificationResult(file, List.of(), error);
+        }
+
+        /**
+         * Whether the file has at least one signer and all signatures verify.
+         */
+        public boolean isValid() {
+            return error == null && !signers.isEmpty() && signers.stream().allMatch(SignerResult::signatureValid);
+        }
+    }
+
+    /**
+     * Result of one signer.
+     *
+     * @param fingerprint    SHA-256 fingerprint of the signer certificate
+     * @param chainStatus    chain validation result of the signer certificate
+     * @param signatureValid whether the signature verifies against the signed content
+     * @param error          reason of a failed verification, null otherwise
+     */
+    public record SignerResult(String fingerprint, String fullName, String givenName, String surname,
+                               String fiscalCode, Instant validFrom, Instant validTo,
+                               CertificateCache.ChainStatus chainStatus, boolean signatureValid, String error) {
+
+        static SignerResult failed(String error) {
+            return new SignerResult(null, null, null, null, null, null, null, null, false, error);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: BulkSignatureVerifier <archive-dir> [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        BulkSignatureVerifier verifier = new BulkSignatureVerifier(threads);
+        long start = System.currentTimeMillis();
+        List<VerificationResult> results = verifier.verifyDirectory(Paths.get(args[0]));
+        long elapsed = System.currentTimeMillis() - start;
+
+        long valid = results.stream().filter(VerificationResult::isValid).count();
+        System.out.println("Verified " + results.size() + " files in " + elapsed + " ms: " + valid + " valid, "
+                + (results.size() - valid) + " invalid");
+        System.out.println(verifier.getCertificates());
+        results.stream()
+                .filter(result -> !result.isValid())
+                .forEach(result -> System.out.println("Invalid: " + result));
+    }
+}
@@ -0,0 +1,485 @@
+package pdfsign;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.x500.RDN;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x500.style.IETFUtils;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cms.SignerInformationVerifier;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.util.Store;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verification cache of signer certificates, keyed by the SHA-256 fingerprint of their encoding.
+ * Documents are usually signed by a few hundred certificates: for each of them the parsed certificate,
+ * subject fields, selected extension values and signature verifier are built once and kept for a configurable
+ * time to live. Issuer certificates are converted and their signatures on each child checked once, and the
+ * chain validation result is cached by the fingerprints of the certificates actually on the chain, so a lookup
+ * with different issuers or new trust anchors is validated again; a result is never kept past the earliest
+ * expiry in its chain. Revocation answers of the {@link RevocationChecker} are cached per certificate with the
+ * same TTL, so an intermediate shared by many signers is looked up once.
+ * Entries are evicted when they expire or, least recently used first, when the cache is full.
+ *
+ * <p>Configure the cache before sharing it between threads.
+ */
+public class CertificateCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private static final String BOUNCY_CASTLE_PROVIDER = "BC";
+    private static final int MAX_CHAIN_LENGTH = 10;
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    private static final CertificateCache DEFAULT = new CertificateCache();
+
+    private final TtlCache<CachedCertificate> certificates;
+    private final TtlCache<ChainNode> nodes;
+    private final TtlCache<Boolean> links;
+    private final TtlCache<ChainStatus> chains;
+    private final TtlCache<RevocationChecker.Status> revocations;
+    private final RevocationChecker revocationChecker;
+    private final Clock clock;
+    private List<String> extensionOids = List.of();
+    private Set<String> trustAnchors = Set.of();
+
+    public CertificateCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL, RevocationChecker.NONE, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxEntries        maximum number of cached certificates (and of each other kind of cached entry)
+     * @param ttl               time to live of an entry
+     * @param revocationChecker revocation lookup, {@link RevocationChecker#NONE} to skip it
+     * @param clock             clock for expiry and certificate validity
+     */
+    public CertificateCache(int maxEntries, Duration ttl, RevocationChecker revocationChecker, Clock clock) {
+        this.certificates = new TtlCache<>(maxEntries, ttl.toMillis(), clock);
+        this.nodes = new TtlCache<>(maxEntries, ttl.toMillis(), clock);
+        this.links = new TtlCache<>(maxEntries, ttl.toMillis(), clock);
+        this.chains = new TtlCache<>(maxEntries, ttl.toMillis(), clock);
+        this.revocations = new TtlCache<>(maxEntries, ttl.toMillis(), clock);
+        this.revocationChecker = revocationChecker;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the cache shared by the static verification helpers of this package.
+     */
+    public static CertificateCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the extensions to extract from each certificate, by OID (e.g. "2.5.29.32" for certificate policies).
+     * Values are decoded as with {@link PdfBouncySign#getExtensionValue}.
+     */
+    public CertificateCache extensions(String... oids) {
+        this.extensionOids = List.of(oids);
+        return this;
+    }
+
+    /**
+     * Sets the fingerprints of the trusted root or intermediate certificates.
+     * Without trust anchors, a chain ending in a valid self-signed certificate is reported as
+     * {@link ChainStatus#NO_TRUST_ANCHORS}, never as {@link ChainStatus#VALID}.
+     */
+    public CertificateCache trustAnchors(Set<String> fingerprints) {
+        this.trustAnchors = Set.copyOf(fingerprints);
+        chains.clear();
+        return this;
+    }
+
+    /**
+     * Gets a certificate without issuer certificates: the chain is validated only if it is self-signed.
+     */
+    public CachedCertificate get(X509CertificateHolder certificate) throws IOException {
+        return get(certificate, null);
+    }
+
+    /**
+     * Gets the parsed form of a certificate, building it on a cache miss or after expiry,
+     * with the chain validated against the given issuers.
+     *
+     * @param certificate the certificate, e.g. from a CMS certificate store
+     * @param issuers     store holding the issuer certificates, e.g. the same CMS store; may be null
+     * @return the cached certificate with the chain status of this lookup
+     */
+    public CachedCertificate get(X509CertificateHolder certificate, Store<X509CertificateHolder> issuers) throws IOException {
+        String fingerprint = fingerprint(certificate.getEncoded());
+        CachedCertificate parsed = certificates.get(fingerprint);
+        if (parsed == null) {
+            parsed = parse(fingerprint, certificate);
+            certificates.put(fingerprint, parsed);
+        }
+        try {
+            return parsed.withChainStatus(validateChain(fingerprint, parsed.certificate(), issuers));
+        } catch (CertificateException e) {
+            throw new IOException("Cannot validate chain of certificate " + fingerprint, e);
+        }
+    }
+
+    /**
+     * Builds the time-independent part of an entry; the chain status is left null.
+     */
+    private CachedCertificate parse(String fingerprint, X509CertificateHolder holder) throws IOException {
+        X500Name subject = holder.getSubject();
+        String serialNumber = firstValue(subject, BCStyle.SERIALNUMBER);
+        try {
+            X509Certificate certificate = toX509(holder);
+            SignerInformationVerifier verifier = new JcaSimpleSignerInfoVerifierBuilder()
+                    .setProvider(BOUNCY_CASTLE_PROVIDER)
+                    .build(certificate);
+
+            Map<String, String> extensions = new LinkedHashMap<>();
+            for (String oid : extensionOids) {
+                String value = PdfBouncySign.getExtensionValue(certificate, oid);
+                if (value != null) {
+                    extensions.put(oid, value);
+                }
+            }
+
+            return new CachedCertificate(fingerprint, holder, certificate,
+                    firstValue(subject, BCStyle.CN),
+                    firstValue(subject, BCStyle.GIVENNAME),
+                    firstValue(subject, BCStyle.SURNAME),
+                    serialNumber != null ? PdfBouncySign.extractFiscalCode(serialNumber) : null,
+                    Map.copyOf(extensions),
+                    null,
+                    verifier);
+        } catch (OperatorCreationException | CertificateException e) {
+            throw new IOException("Cannot parse certificate " + fingerprint, e);
+        }
+    }
+
+    /**
+     * Walks the chain up to a trust anchor or a self-signed certificate, then checks validity periods
+     * and revocation along it. Only the walk runs on a cache hit: conversions and signature checks are cached.
+     */
+    private ChainStatus validateChain(String fingerprint, X509Certificate certificate,
+                                      Store<X509CertificateHolder> issuers) throws CertificateException, IOException {
+        List<ChainNode> chain = new ArrayList<>();
+        ChainNode current = node(fingerprint, certificate, null);
+        ChainEnd end = ChainEnd.INCOMPLETE;
+        while (current != null) {
+            chain.add(current);
+            if (trustAnchors.contains(current.fingerprint())) {
+                end = ChainEnd.TRUST_ANCHOR;
+                break;
+            }
+            if (current.selfSigned()) {
+                end = ChainEnd.SELF_SIGNED;
+                break;
+            }
+            current = chain.size() < MAX_CHAIN_LENGTH ? findIssuer(current, issuers) : null;
+        }
+
+        StringBuilder key = new StringBuilder(end.name());
+        for (ChainNode node : chain) {
+            key.append('/').append(node.fingerprint());
+        }
+        ChainStatus cached = chains.get(key.toString());
+        if (cached != null) {
+            return cached;
+        }
+        ChainStatus status = chainStatus(chain, end);
+        // An unreachable responder may answer next time
+        if (status != ChainStatus.REVOCATION_UNKNOWN) {
+            chains.put(key.toString(), status, validUntil(chain));
+        }
+        return status;
+    }
+
+    private ChainStatus chainStatus(List<ChainNode> chain, ChainEnd end) {
+        Date now = Date.from(clock.instant());
+        boolean revocationUnknown = false;
+        for (int i = 0; i < chain.size(); i++) {
+            ChainNode node = chain.get(i);
+            try {
+                node.certificate().checkValidity(now);
+            } catch (CertificateException e) {
+                return ChainStatus.EXPIRED;
+            }
+            if (i + 1 < chain.size()) {
+                switch (revocationStatus(node.fingerprint(), node.certificate(), chain.get(i + 1).certificate())) {
+                    case REVOKED -> {
+                        return ChainStatus.REVOKED;
+                    }
+                    case UNKNOWN -> revocationUnknown = true;
+                    default -> {
+                        // GOOD or NOT_CHECKED
+                    }
+                }
+            }
+        }
+        return switch (end) {
+            case TRUST_ANCHOR -> revocationUnknown ? ChainStatus.REVOCATION_UNKNOWN : ChainStatus.VALID;
+            // Only a matched anchor makes a chain valid
+            case SELF_SIGNED -> trustAnchors.isEmpty() ? ChainStatus.NO_TRUST_ANCHORS : ChainStatus.UNTRUSTED;
+            case INCOMPLETE -> ChainStatus.INCOMPLETE;
+        };
+    }
+
+    /**
+     * Time at which the validity result of a chain may change: the earliest expiry, or a future start of validity.
+     */
+    private long validUntil(List<ChainNode> chain) {
+        long now = clock.millis();
+        long until = Long.MAX_VALUE;
+        for (ChainNode node : chain) {
+            until = Math.min(until, node.certificate().getNotAfter().getTime());
+            long notBefore = node.certificate().getNotBefore().getTime();
+            if (notBefore > now) {
+                until = Math.min(until, notBefore);
+            }
+        }
+        return until;
+    }
+
+    private RevocationChecker.Status revocationStatus(String fingerprint, X509Certificate certificate,
+                                                      X509Certificate issuer) {
+        RevocationChecker.Status cached = revocations.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        RevocationChecker.Status status;
+        try {
+            status = revocationChecker.check(certificate, issuer);
+        } catch (IOException e) {
+            // Unreachable responder: report it, but do not cache it
+            return RevocationChecker.Status.UNKNOWN;
+        }
+        revocations.put(fingerprint, status);
+        return status;
+    }
+
+    /**
+     * Finds the certificate in the store whose key verifies the given one, checking each candidate signature once.
+     */
+    private ChainNode findIssuer(ChainNode child, Store<X509CertificateHolder> issuers)
+            throws CertificateException, IOException {
+        if (issuers == null) {
+            return null;
+        }
+        Collection<X509CertificateHolder> candidates = issuers.getMatches(null);
+        for (X509CertificateHolder candidate : candidates) {
+            if (candidate.getSubject().equals(child.issuer())) {
+                ChainNode issuer = node(fingerprint(candidate.getEncoded()), null, candidate);
+                String link = child.fingerprint() + '>' + issuer.fingerprint();
+                Boolean signed = links.get(link);
+                if (signed == null) {
+                    signed = verifies(child.certificate(), issuer.certificate());
+                    links.put(link, signed);
+                }
+                if (signed) {
+                    return issuer;
+                }
+                // same name, different key: keep looking
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the converted form of a chain certificate, from the given certificate or holder on a cache miss.
+     */
+    private ChainNode node(String fingerprint, X509Certificate certificate, X509CertificateHolder holder)
+            throws CertificateException {
+        ChainNode node = nodes.get(fingerprint);
+        if (node == null) {
+            X509Certificate converted = certificate != null ? certificate : toX509(holder);
+            node = new ChainNode(fingerprint, converted,
+                    X500Name.getInstance(converted.getIssuerX500Principal().getEncoded()), isSelfSigned(converted));
+            nodes.put(fingerprint, node);
+        }
+        return node;
+    }
+
+    private static boolean isSelfSigned(X509Certificate certificate) {
+        return certificate.getSubjectX500Principal().equals(certificate.getIssuerX500Principal())
+                && verifies(certificate, certificate);
+    }
+
+    private static boolean verifies(X509Certificate certificate, X509Certificate issuer) {
+        try {
+            certificate.verify(issuer.getPublicKey());
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static X509Certificate toX509(X509CertificateHolder holder) throws CertificateException {
+        return new JcaX509CertificateConverter().setProvider(BOUNCY_CASTLE_PROVIDER).getCertificate(holder);
+    }
+
+    private static String firstValue(X500Name name, ASN1ObjectIdentifier attribute) {
+        RDN[] rdns = name.getRDNs(attribute);
+        return rdns.length > 0 ? IETFUtils.valueToString(rdns[0].getFirst().getValue()) : null;
+    }
+
+    /**
+     * Computes the hex SHA-256 fingerprint of an encoded certificate.
+     */
+    public static String fingerprint(byte[] encoded) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(encoded));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void clear() {
+        certificates.clear();
+        nodes.clear();
+        links.clear();
+        chains.clear();
+        revocations.clear();
+    }
+
+    public long getHits() {
+        return certificates.getHits();
+    }
+
+    public long getMisses() {
+        return certificates.getMisses();
+    }
+
+    @Override
+    public String toString() {
+        return "CertificateCache [certificates=" + certificates + ", chains=" + chains
+                + ", revocations=" + revocations + "]";
+    }
+
+    /**
+     * Outcome of the chain validation of a signer certificate. {@code NO_TRUST_ANCHORS} means the chain
+     * reached a self-signed root but the cache has no trust anchors to accept it with.
+     */
+    public enum ChainStatus {
+        VALID, UNTRUSTED, NO_TRUST_ANCHORS, INCOMPLETE, EXPIRED, REVOKED, REVOCATION_UNKNOWN
+    }
+
+    /**
+     * A parsed certificate with its subject fields, extension values, chain status and a reusable verifier.
+     *
+     * @param fullName    subject CN
+     * @param givenName   subject GIVENNAME
+     * @param surname     subject SURNAME
+     * @param fiscalCode  fiscal code extracted from the subject SERIALNUMBER
+     * @param extensions  configured extension OID -> decoded value
+     * @param chainStatus chain validation result of the lookup that returned this instance
+     */
+    public record CachedCertificate(String fingerprint, X509CertificateHolder holder, X509Certificate certificate,
+                                    String fullName, String givenName, String surname, String fiscalCode,
+                                    Map<String, String> extensions, ChainStatus chainStatus,
+                                    SignerInformationVerifier verifier) {
+
+        private CachedCertificate withChainStatus(ChainStatus status) {
+            return new CachedCertificate(fingerprint, holder, certificate, fullName, givenName, surname,
+                    fiscalCode, extensions, status, verifier);
+        }
+    }
+
+    /**
+     * A chain certificate in converted form, with the data the chain walk needs.
+     */
+    private record ChainNode(String fingerprint, X509Certificate certificate, X500Name issuer, boolean selfSigned) {
+    }
+
+    /**
+     * Where the chain walk stopped.
+     */
+    private enum ChainEnd {
+        TRUST_ANCHOR, SELF_SIGNED, INCOMPLETE
+    }
+
+    /**
+     * LRU map whose entries also expire a fixed time after being stored, or earlier if requested.
+     */
+    private static final class TtlCache<V> {
+
+        private final int maxEntries;
+        private final long ttlMillis;
+        private final Clock clock;
+        private final LinkedHashMap<String, Timed<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long hits;
+        private long misses;
+
+        private TtlCache(int maxEntries, long ttlMillis, Clock clock) {
+            this.maxEntries = maxEntries;
+            this.ttlMillis = ttlMillis;
+            this.clock = clock;
+        }
+
+        synchronized V get(String key) {
+            Timed<V> timed = entries.get(key);
+            if (timed != null && timed.expiresAt > clock.millis()) {
+                hits++;
+                return timed.value;
+            }
+            if (timed != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+
+        synchronized void put(String key, V value) {
+            put(key, value, Long.MAX_VALUE);
+        }
+
+        synchronized void put(String key, V value, long expiresAt) {
+            entries.put(key, new Timed<>(value, Math.min(clock.millis() + ttlMillis, expiresAt)));
+            if (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized long getHits() {
+            return hits;
+        }
+
+        synchronized long getMisses() {
+            return misses;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return entries.size() + " (hits=" + hits + ", misses=" + misses + ")";
+        }
+
+        private record Timed<V>(V value, long expiresAt) {
+        }
+    }
+}
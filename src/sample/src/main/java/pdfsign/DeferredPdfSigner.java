@@ -0,0 +1,387 @@
+package pdfsign;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.ExternalSigningSupport;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Set;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.cms.Attribute;
+import org.bouncycastle.asn1.cms.CMSAttributes;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.asn1.cms.ContentInfo;
+import org.bouncycastle.asn1.cms.IssuerAndSerialNumber;
+import org.bouncycastle.asn1.cms.SignedData;
+import org.bouncycastle.asn1.cms.SignerIdentifier;
+import org.bouncycastle.asn1.cms.SignerInfo;
+import org.bouncycastle.asn1.cms.Time;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.operator.DefaultDigestAlgorithmIdentifierFinder;
+import org.bouncycastle.operator.DefaultSignatureAlgorithmIdentifierFinder;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Deferred (external) PDF signing in batches.
+ * Each document is prepared with {@link PDDocument#saveIncrementalForExternalSigning}: its signed byte range
+ * is hashed in a streaming fashion, never loaded as a whole, and only the small CMS signed attributes
+ * are sent to the {@link BatchKeySigner}, one call per batch of documents.
+ * The CMS SignedData is then assembled around the returned signature without any further crypto.
+ *
+ * <p>Hashing and writing run on a pool of threads. The next batch is hashed while the current one is
+ * written: a document of the next batch is opened as soon as one of the current batch is closed, so at most
+ * {@code batchSize} documents are open at any time. Timestamps are not added in this mode.
+ *
+ * <p>Example usage:
+ * <pre>
+ * PdfSigner settings = new PdfSigner();
+ * DeferredPdfSigner deferred = new DeferredPdfSigner(settings, settings.asBatchKeySigner()).batchSize(128);
+ * BatchReport report = deferred.signAll(sources.iterator(), source -> outputDir.resolve(source.getFileName()));
+ * </pre>
+ */
+public class DeferredPdfSigner {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final String HASH_ALGORITHM_SHA256 = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PdfSigner settings;
+    private final BatchKeySigner keySigner;
+    private final SignerIdentifier signerIdentifier;
+    private final AlgorithmIdentifier digestAlgorithm;
+    private final AlgorithmIdentifier signatureAlgorithm;
+    private final ASN1Set certificates;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param settings  signer providing the signature name, reason and location
+     * @param keySigner the key signing the batches
+     */
+    public DeferredPdfSigner(PdfSigner settings, BatchKeySigner keySigner) {
+        this.settings = settings;
+        this.keySigner = keySigner;
+        this.digestAlgorithm = new DefaultDigestAlgorithmIdentifierFinder().find(HASH_ALGORITHM_SHA256);
+        this.signatureAlgorithm = new DefaultSignatureAlgorithmIdentifierFinder().find(keySigner.getSignatureAlgorithm());
+
+        // Certificate structures are the same for every document: encode them once
+        try {
+            X509Certificate[] chain = keySigner.getCertificateChain();
+            JcaX509CertificateHolder signerCertificate = new JcaX509CertificateHolder(chain[0]);
+            this.signerIdentifier = new SignerIdentifier(
+                    new IssuerAndSerialNumber(signerCertificate.getIssuer(), signerCertificate.getSerialNumber()));
+            ASN1EncodableVector vector = new ASN1EncodableVector();
+            for (X509Certificate certificate : chain) {
+                vector.add(new JcaX509CertificateHolder(certificate).toASN1Structure());
+            }
+            this.certificates = new DERSet(vector);
+        } catch (CertificateEncodingException e) {
+            throw new IllegalArgumentException("Invalid certificate chain", e);
+        }
+    }
+
+    /**
+     * Sets the number of documents signed by one key operation, also the maximum number of open documents.
+     */
+    public DeferredPdfSigner batchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+        return this;
+    }
+
+    /**
+     * Sets the number of threads hashing and writing documents.
+     */
+    public DeferredPdfSigner threads(int threads) {
+        this.threads = Math.max(threads, 1);
+        return this;
+    }
+
+    /**
+     * Signs all documents and waits for the batch to finish.
+     * A failed document does not stop the batch; its destination is deleted and the failure is reported.
+     *
+     * @param sources     the PDFs to sign
+     * @param destination the signed file of a source
+     * @return the batch report
+     */
+    public BatchPdfSigner.BatchReport signAll(Iterator<Path> sources, Function<Path, Path> destination) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // One permit per open document: taken before a document is opened, returned once it is closed
+        Semaphore openDocuments = new Semaphore(batchSize);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Pending>> current = new ArrayList<>(batchSize);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        try {
+            prepareBatch(current, sources, destination, executor, failures, openDocuments);
+            while (!current.isEmpty()) {
+                List<Pending> batch = joinAll(current);
+                current.clear();
+                writes.removeIf(CompletableFuture::isDone);
+                writes.addAll(signAndWrite(batch, executor, failures, latencies, openDocuments));
+                // Hash the next batch while this one is written
+                prepareBatch(current, sources, destination, executor, failures, openDocuments);
+            }
+        } finally {
+            // Prepared but never signed, e.g. when the source iterator fails
+            for (Pending pending : joinAll(current)) {
+                pending.abort(failures, new IOException("Batch aborted before signing"));
+                openDocuments.release();
+            }
+            writes.forEach(CompletableFuture::join);
+            executor.shutdown();
+        }
+        return BatchPdfSigner.BatchReport.of(latencies.size(), failures, latencies, System.nanoTime() - start);
+    }
+
+    /**
+     * Signs all PDFs of a directory into another directory, keeping the file names.
+     */
+    public BatchPdfSigner.BatchReport signDirectory(Path sourceDir, Path destinationDir) throws IOException {
+        Files.createDirectories(destinationDir);
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            Iterator<Path> sources = files
+                    .filter(file -> file.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .iterator();
+            return signAll(sources, source -> destinationDir.resolve(source.getFileName()));
+        }
+    }
+
+    /**
+     * Starts preparing up to {@code batchSize} documents into {@code batch}. Blocks while the documents of the
+     * previous batch being written hold all the open-document permits.
+     */
+    private void prepareBatch(List<CompletableFuture<Pending>> batch, Iterator<Path> sources,
+                              Function<Path, Path> destination, ExecutorService executor,
+                              List<String> failures, Semaphore openDocuments) {
+        while (sources.hasNext() && batch.size() < batchSize) {
+            Path source = sources.next();
+            openDocuments.acquireUninterruptibly();
+            batch.add(CompletableFuture.supplyAsync(
+                    () -> prepare(source, destination, failures, openDocuments), executor));
+        }
+    }
+
+    private static List<Pending> joinAll(List<CompletableFuture<Pending>> futures) {
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Opens a document, adds the signature placeholder and hashes the signed byte range.
+     * The destination is resolved here, so a failing mapper is reported like any other failure.
+     *
+     * @return the pending signature, or null if the document failed and its permit was returned
+     */
+    private Pending prepare(Path source, Function<Path, Path> destination, List<String> failures,
+                            Semaphore openDocuments) {
+        long start = System.nanoTime();
+        Path target = null;
+        PDDocument doc = null;
+        OutputStream out = null;
+        SignatureOptions options = null;
+        try {
+            target = destination.apply(source);
+            doc = Loader.loadPDF(source.toFile());
+            out = new BufferedOutputStream(Files.newOutputStream(target));
+            PDSignature signature = settings.createSignature();
+            options = settings.createSignatureOptions();
+            doc.addSignature(signature, options);
+
+            ExternalSigningSupport external = doc.saveIncrementalForExternalSigning(out);
+            byte[] digest;
+            try (InputStream content = external.getContent()) {
+                digest = digest(content);
+            }
+            ASN1Set signedAttributes = signedAttributes(digest, signature.getSignDate().getTime());
+            return new Pending(source, target, doc, out, options, external, signedAttributes, start);
+        } catch (IOException | RuntimeException e) {
+            failures.add(source + ": " + e.getMessage());
+            closeQuietly(doc, out, options);
+            if (target != null) {
+                deleteQuietly(target);
+            }
+            openDocuments.release();
+            return null;
+        }
+    }
+
+    /**
+     * Signs a batch with one key operation and starts writing its documents.
+     *
+     * @return the pending writes, each returning its open-document permit when done
+     */
+    private List<CompletableFuture<Void>> signAndWrite(List<Pending> batch, ExecutorService executor,
+                                                       List<String> failures, List<Long> latencies,
+                                                       Semaphore openDocuments) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> signatures;
+        try {
+            signatures = keySigner.signAll(batch.stream().map(Pending::toBeSigned).toList());
+        } catch (GeneralSecurityException | RuntimeException e) {
+            batch.forEach(pending -> {
+                pending.abort(failures, e);
+                openDocuments.release();
+            });
+            return List.of();
+        }
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            byte[] signature = signatures.get(i);
+            writes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    pending.external.setSignature(signedData(pending.signedAttributes, signature));
+                    pending.close();
+                    latencies.add(System.nanoTime() - pending.startNanos);
+                } catch (IOException | RuntimeException e) {
+                    pending.abort(failures, e);
+                } finally {
+                    openDocuments.release();
+                }
+            }, executor));
+        }
+        return writes;
+    }
+
+    private static byte[] digest(InputStream content) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance(HASH_ALGORITHM_SHA256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            md.update(buffer, 0, read);
+        }
+        return md.digest();
+    }
+
+    /**
+     * Builds the CMS signed attributes (content type, signing time, message digest).
+     * DERSet sorts them, giving the DER encoding that is actually signed.
+     */
+    private static ASN1Set signedAttributes(byte[] digest, Date signingTime) {
+        ASN1EncodableVector attributes = new ASN1EncodableVector();
+        attributes.add(new Attribute(CMSAttributes.contentType, new DERSet(CMSObjectIdentifiers.data)));
+        attributes.add(new Attribute(CMSAttributes.signingTime, new DERSet(new Time(signingTime))));
+        attributes.add(new Attribute(CMSAttributes.messageDigest, new DERSet(new DEROctetString(digest))));
+        return new DERSet(attributes);
+    }
+
+    /**
+     * Assembles a detached CMS SignedData around an externally computed signature.
+     */
+    private byte[] signedData(ASN1Set signedAttributes, byte[] signature) throws IOException {
+        SignerInfo signerInfo = new SignerInfo(signerIdentifier, digestAlgorithm, signedAttributes,
+                signatureAlgorithm, new DEROctetString(signature), null);
+        SignedData signedData = new SignedData(new DERSet(digestAlgorithm),
+                new ContentInfo(CMSObjectIdentifiers.data, null), certificates, null, new DERSet(signerInfo));
+        return new ContentInfo(CMSObjectIdentifiers.signedData, signedData).getEncoded(ASN1Encoding.DER);
+    }
+
+    private static void closeQuietly(Closeable... closeables) {
+        for (Closeable closeable : closeables) {
+            if (closeable != null) {
+                try {
+                    closeable.close();
+                } catch (IOException ignored) {
+                    // already failing or finished
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the failure is already reported
+        }
+    }
+
+    /**
+     * A document waiting for its signature: kept open until the signature is written.
+     */
+    private record Pending(Path source, Path target, PDDocument doc, OutputStream out, SignatureOptions options,
+                           ExternalSigningSupport external, ASN1Set signedAttributes, long startNanos) {
+
+        byte[] toBeSigned() {
+            try {
+                return signedAttributes.getEncoded(ASN1Encoding.DER);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot encode signed attributes of " + source, e);
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                closeQuietly(doc, options);
+            }
+        }
+
+        void abort(List<String> failures, Exception e) {
+            failures.add(source + ": " + e.getMessage());
+            closeQuietly(out, doc, options);
+            deleteQuietly(target);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: DeferredPdfSigner <source-dir> <destination-dir> [batch-size]");
+            System.out.println("Key material is configured as for PdfSigner (-Dpdf.signer.* properties)");
+            return;
+        }
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BATCH_SIZE;
+
+        try (PdfSigner settings = new PdfSigner()) {
+            BatchKeySigner keySigner = settings.asBatchKeySigner();
+            DeferredPdfSigner deferred = new DeferredPdfSigner(settings, keySigner).batchSize(batchSize);
+            BatchPdfSigner.BatchReport report = deferred.signDirectory(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println(report);
+            System.out.println(keySigner);
+            report.failures().forEach(failure -> System.err.println("Failed: " + failure));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package pdfsign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local fake of an OCSP responder / CRL for tests and benchmarks.
+ * Certificates are revoked by serial number; every other certificate is good.
+ * An optional latency stands in for the network round trip.
+ */
+public class FakeRevocationChecker implements RevocationChecker {
+
+    private final Set<BigInteger> revoked = ConcurrentHashMap.newKeySet();
+    private final long latencyMillis;
+    private final AtomicLong lookups = new AtomicLong();
+
+    public FakeRevocationChecker() {
+        this(0);
+    }
+
+    /**
+     * @param latencyMillis delay added to each lookup
+     */
+    public FakeRevocationChecker(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Revokes the certificate with the given serial number.
+     */
+    public FakeRevocationChecker revoke(BigInteger serialNumber) {
+        revoked.add(serialNumber);
+        return this;
+    }
+
+    @Override
+    public Status check(X509Certificate certificate, X509Certificate issuer) throws IOException {
+        lookups.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted in the fake revocation checker");
+            }
+        }
+        return revoked.contains(certificate.getSerialNumber()) ? Status.REVOKED : Status.GOOD;
+    }
+
+    /**
+     * Returns the number of lookups answered so far.
+     */
+    public long getLookupCount() {
+        return lookups.get();
+    }
+}
@@ -0,0 +1,102 @@
+package pdfsign;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fake TSA for tests and benchmarks.
+ * Answers real RFC 3161 responses signed by a throw-away self-signed TSA certificate,
+ * after an optional artificial latency that stands in for the network round trip.
+ */
+public class FakeTsaTransport implements TsaTransport {
+
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    // Test policy OID
+    private static final String POLICY_OID = "1.2.3.4.1";
+
+    private final TimeStampResponseGenerator responseGenerator;
+    private final long latencyMillis;
+    private final AtomicLong serial = new AtomicLong();
+
+    /**
+     * @param latencyMillis delay added to each request
+     */
+    public FakeTsaTransport(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+
+            // A TSA certificate must carry the critical timeStamping extended key usage
+            X500Name name = new X500Name("CN=Fake TSA");
+            long now = System.currentTimeMillis();
+            X509CertificateHolder certificate = new JcaX509v3CertificateBuilder(name, BigInteger.ONE,
+                    new Date(now - 60_000), new Date(now + 86_400_000L), name, keyPair.getPublic())
+                    .addExtension(Extension.extendedKeyUsage, true, new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping))
+                    .build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(keyPair.getPrivate()));
+
+            TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(
+                    new JcaSimpleSignerInfoGeneratorBuilder().build(SIGNATURE_ALGORITHM, keyPair.getPrivate(), certificate),
+                    new JcaDigestCalculatorProviderBuilder().build().get(new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1)),
+                    new ASN1ObjectIdentifier(POLICY_OID));
+            tokenGenerator.addCertificates(new JcaCertStore(List.of(certificate)));
+            this.responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create the fake TSA", e);
+        }
+    }
+
+    @Override
+    public byte[] send(byte[] request) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted in the fake TSA");
+            }
+        }
+        try {
+            TimeStampRequest timeStampRequest = new TimeStampRequest(request);
+            // The token generator is not thread-safe
+            synchronized (responseGenerator) {
+                return responseGenerator.generate(timeStampRequest, BigInteger.valueOf(serial.incrementAndGet()), new Date())
+                        .getEncoded();
+            }
+        } catch (Exception e) {
+            throw new IOException("Fake TSA cannot answer the request", e);
+        }
+    }
+
+    /**
+     * Returns the number of requests answered so far.
+     */
+    public long getRequestCount() {
+        return serial.get();
+    }
+}
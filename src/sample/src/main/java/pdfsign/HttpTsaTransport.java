@@ -0,0 +1,67 @@
+package pdfsign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * HTTP transport to a TSA over a single {@link HttpClient}.
+ * The client keeps connections alive and reuses them across requests and threads,
+ * instead of opening and tearing down a connection per timestamp.
+ */
+public class HttpTsaTransport implements TsaTransport {
+
+    private static final String CONTENT_TYPE_TIMESTAMP_QUERY = "application/timestamp-query";
+
+    private final URI tsaUri;
+    private final String authorization;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    /**
+     * @param tsaUrl    the URL of the Time Stamping Authority
+     * @param username  username for Basic authentication (null for anonymous)
+     * @param password  password for Basic authentication (null for anonymous)
+     * @param timeoutMs connection and request timeout in milliseconds
+     */
+    public HttpTsaTransport(String tsaUrl, String username, String password, int timeoutMs) {
+        this.tsaUri = URI.create(tsaUrl);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.authorization = username != null && password != null
+                ? "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public byte[] send(byte[] request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(tsaUri)
+                .timeout(timeout)
+                .header("Content-Type", CONTENT_TYPE_TIMESTAMP_QUERY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request));
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the TSA " + tsaUri);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("TSA returned HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
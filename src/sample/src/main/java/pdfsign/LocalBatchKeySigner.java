@@ -0,0 +1,66 @@
+package pdfsign;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for an HSM: signs batches with an in-memory private key.
+ * The {@link Signature} engine is initialized once per batch and reused for every payload,
+ * like a single HSM session.
+ */
+public class LocalBatchKeySigner implements BatchKeySigner {
+
+    private static final String PROVIDER_BC = "BC";
+
+    private final PrivateKey privateKey;
+    private final X509Certificate[] certificateChain;
+    private final String signatureAlgorithm;
+    private long batches;
+    private long signatures;
+
+    /**
+     * @param privateKey         the signing key
+     * @param certificateChain   the certificate chain, signer certificate first
+     * @param signatureAlgorithm JCA signature algorithm, e.g. "SHA256withRSA"
+     */
+    public LocalBatchKeySigner(PrivateKey privateKey, X509Certificate[] certificateChain, String signatureAlgorithm) {
+        this.privateKey = privateKey;
+        this.certificateChain = certificateChain.clone();
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    @Override
+    public synchronized List<byte[]> signAll(List<byte[]> payloads) throws GeneralSecurityException {
+        Signature engine = Signature.getInstance(signatureAlgorithm, PROVIDER_BC);
+        engine.initSign(privateKey);
+        List<byte[]> result = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            // sign() resets the engine to the initialized state, ready for the next payload
+            engine.update(payload);
+            result.add(engine.sign());
+        }
+        batches++;
+        signatures += payloads.size();
+        return result;
+    }
+
+    @Override
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    @Override
+    public X509Certificate[] getCertificateChain() {
+        return certificateChain.clone();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LocalBatchKeySigner [algorithm=" + signatureAlgorithm + ", batches=" + batches
+                + ", signatures=" + signatures + "]";
+    }
+}
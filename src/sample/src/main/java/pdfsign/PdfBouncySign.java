@@ -4,13 +4,8 @@ import org.bouncycastle.asn1.ASN1InputStream;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1String;
 import org.bouncycastle.asn1.DEROctetString;
-import org.bouncycastle.asn1.x500.RDN;
-import org.bouncycastle.asn1.x500.X500Name;
-import org.bouncycastle.asn1.x500.style.BCStyle;
-import org.bouncycastle.asn1.x500.style.IETFUtils;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cms.*;
-import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import org.bouncycastle.util.Store;
 import org.bouncycastle.util.encoders.Base64;
@@ -25,7 +20,8 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -41,6 +37,9 @@ public class PdfBouncySign {
     // Default test folder - uses user's home directory
     private static final String DEFAULT_TEST_FOLDER = Paths.get(System.getProperty("user.home"), "pdf-signatures") + FileSystems.getDefault().getSeparator();
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
     private static final String BOUNCY_CASTLE_PROVIDER = "BC";
 
     /**
@@ -87,10 +86,8 @@ public class PdfBouncySign {
 
                 if (!certCollection.isEmpty()) {
                     X509CertificateHolder cert = (X509CertificateHolder) certCollection.iterator().next();
-                    boolean verified = signer.verify(
-                            new JcaSimpleSignerInfoVerifierBuilder()
-                                    .setProvider(BOUNCY_CASTLE_PROVIDER)
-                                    .build(cert));
+                    // The verifier is built once per certificate and reused from the cache
+                    boolean verified = signer.verify(CertificateCache.getDefault().get(cert).verifier());
                     System.out.println("Signature verification result: " + verified);
                     if (verified) verifiedCount++;
                 }
@@ -117,7 +114,6 @@ public class PdfBouncySign {
      */
     public static Map<String, String> verifySignatureX509(byte[] contents, boolean decodeBase64) {
         Map<String, String> result = new HashMap<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         try {
             CMSSignedData signature;
@@ -127,7 +123,7 @@ public class PdfBouncySign {
                 signature = new CMSSignedData(contents);
             }
 
-            Store<?> certStore = signature.getCertificates();
+            Store<X509CertificateHolder> certStore = signature.getCertificates();
             SignerInformationStore signers = signature.getSignerInfos();
             Collection<?> signerCollection = signers.getSigners();
 
@@ -136,49 +132,34 @@ public class PdfBouncySign {
             int signerIndex = 0;
             for (Object signerObj : signerCollection) {
                 SignerInformation signer = (SignerInformation) signerObj;
-                Collection<?> certCollection = certStore.getMatches(signer.getSID());
+                Collection<X509CertificateHolder> certCollection = certStore.getMatches(signer.getSID());
 
-                for (Object certObj : certCollection) {
-                    X509CertificateHolder cert = (X509CertificateHolder) certObj;
-                    X500Name x500name = cert.getSubject();
+                for (X509CertificateHolder holder : certCollection) {
+                    // Subject fields are extracted once per certificate and cached by fingerprint
+                    CertificateCache.CachedCertificate cert = CertificateCache.getDefault().get(holder, certStore);
 
                     String prefix = signerIndex > 0 ? "signer" + signerIndex + "_" : "";
 
-                    // Extract Common Name (full name)
-                    RDN[] cnRdns = x500name.getRDNs(BCStyle.CN);
-                    if (cnRdns.length > 0) {
-                        String fullName = IETFUtils.valueToString(cnRdns[0].getFirst().getValue());
-                        result.put(prefix + "fullName", fullName);
+                    if (cert.fullName() != null) {
+                        result.put(prefix + "fullName", cert.fullName());
                     }
-
-                    // Extract Given Name
-                    RDN[] givenNameRdns = x500name.getRDNs(BCStyle.GIVENNAME);
-                    if (givenNameRdns.length > 0) {
-                        String givenName = IETFUtils.valueToString(givenNameRdns[0].getFirst().getValue());
-                        result.put(prefix + "givenName", givenName);
+                    if (cert.givenName() != null) {
+                        result.put(prefix + "givenName", cert.givenName());
                     }
-
-                    // Extract Surname
-                    RDN[] surnameRdns = x500name.getRDNs(BCStyle.SURNAME);
-                    if (surnameRdns.length > 0) {
-                        String surname = IETFUtils.valueToString(surnameRdns[0].getFirst().getValue());
-                        result.put(prefix + "surname", surname);
+                    if (cert.surname() != null) {
+                        result.put(prefix + "surname", cert.surname());
                     }
-
-                    // Extract Serial Number (often contains fiscal/tax code)
-                    RDN[] serialRdns = x500name.getRDNs(BCStyle.SERIALNUMBER);
-                    if (serialRdns.length > 0) {
-                        String serialNumber = IETFUtils.valueToString(serialRdns[0].getFirst().getValue());
-                        String fiscalCode = extractFiscalCode(serialNumber);
-                        result.put(prefix + "fiscalCode", fiscalCode);
-                        System.out.println("Fiscal Code: " + fiscalCode);
+                    if (cert.fiscalCode() != null) {
+                        result.put(prefix + "fiscalCode", cert.fiscalCode());
+                        System.out.println("Fiscal Code: " + cert.fiscalCode());
                     }
+                    result.put(prefix + "chainStatus", cert.chainStatus().name());
 
                     // Certificate validity dates
-                    Date validFrom = cert.getNotBefore();
-                    Date validTo = cert.getNotAfter();
-                    result.put(prefix + "validFrom", sdf.format(validFrom));
-                    result.put(prefix + "validTo", sdf.format(validTo));
+                    Date validFrom = holder.getNotBefore();
+                    Date validTo = holder.getNotAfter();
+                    result.put(prefix + "validFrom", DATE_FORMAT.format(validFrom.toInstant()));
+                    result.put(prefix + "validTo", DATE_FORMAT.format(validTo.toInstant()));
                     System.out.println("Certificate valid from: " + validFrom);
                     System.out.println("Certificate valid to: " + validTo);
 
@@ -190,6 +171,8 @@ public class PdfBouncySign {
             e.printStackTrace();
         } catch (DecoderException e) {
             System.err.println("Base64 decoding error");
+        } catch (IOException e) {
+            System.err.println("Certificate parsing error: " + e.getMessage());
         }
 
         return result;
@@ -197,8 +180,9 @@ public class PdfBouncySign {
 
     /**
      * Extracts the fiscal code from a serial number field.
+     * Handles various formats: "TINIT-XXXXX", "CF:XXXXX", "IT-XXXXX"
      */
-    private static String extractFiscalCode(String serialNumber) {
+    static String extractFiscalCode(String serialNumber) {
         int colonIndex = serialNumber.indexOf(":");
         int dashIndex = serialNumber.indexOf("-");
 
@@ -279,7 +263,7 @@ public class PdfBouncySign {
      * @param oid         the extension OID
      * @return the decoded extension value, or null if not found
      */
-    public String getExtensionValue(X509Certificate certificate, String oid) throws IOException {
+    public static String getExtensionValue(X509Certificate certificate, String oid) throws IOException {
         byte[] extensionValue = certificate.getExtensionValue(oid);
 
         if (extensionValue != null) {
@@ -297,7 +281,7 @@ public class PdfBouncySign {
     /**
      * Converts byte array to DER object.
      */
-    private ASN1Primitive toDerObject(byte[] data) throws IOException {
+    private static ASN1Primitive toDerObject(byte[] data) throws IOException {
         try (ByteArrayInputStream inStream = new ByteArrayInputStream(data);
              ASN1InputStream asnInputStream = new ASN1InputStream(inStream)) {
             return asnInputStream.readObject();
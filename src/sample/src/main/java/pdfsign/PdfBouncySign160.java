@@ -1,9 +1,5 @@
 package pdfsign;
 
-import org.bouncycastle.asn1.x500.RDN;
-import org.bouncycastle.asn1.x500.X500Name;
-import org.bouncycastle.asn1.x500.style.BCStyle;
-import org.bouncycastle.asn1.x500.style.IETFUtils;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cms.CMSException;
 import org.bouncycastle.cms.CMSSignedData;
@@ -18,7 +14,8 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -33,6 +30,9 @@ public class PdfBouncySign160 {
     // Default test folder - uses user's home directory
     private static final String DEFAULT_TEST_FOLDER = Paths.get(System.getProperty("user.home"), "pdf-signatures") + FileSystems.getDefault().getSeparator();
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
     // Example test file names (for demonstration purposes)
     private static final String SAMPLE_FILE_1 = "signed_document.pdf.p7m";
     private static final String SAMPLE_FILE_2 = "sample_attachment.pdf.p7m";
@@ -68,7 +68,6 @@ public class PdfBouncySign160 {
      */
     public static Map<String, String> verifySignatureX509(byte[] contents, boolean decodeBase64) {
         Map<String, String> result = new HashMap<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         try {
             CMSSignedData signature;
@@ -78,7 +77,7 @@ public class PdfBouncySign160 {
                 signature = new CMSSignedData(contents);
             }
 
-            Store<?> certStore = signature.getCertificates();
+            Store<X509CertificateHolder> certStore = signature.getCertificates();
             SignerInformationStore signers = signature.getSignerInfos();
             Collection<?> signerCollection = signers.getSigners();
 
@@ -87,49 +86,34 @@ public class PdfBouncySign160 {
             int signerIndex = 0;
             for (Object signerObj : signerCollection) {
                 SignerInformation signer = (SignerInformation) signerObj;
-                Collection<?> certCollection = certStore.getMatches(signer.getSID());
+                Collection<X509CertificateHolder> certCollection = certStore.getMatches(signer.getSID());
 
-                for (Object certObj : certCollection) {
-                    X509CertificateHolder cert = (X509CertificateHolder) certObj;
-                    X500Name x500name = cert.getSubject();
+                for (X509CertificateHolder holder : certCollection) {
+                    // Subject fields are extracted once per certificate and cached by fingerprint
+                    CertificateCache.CachedCertificate cert = CertificateCache.getDefault().get(holder, certStore);
 
                     String prefix = signerIndex > 0 ? "signer" + signerIndex + "_" : "";
 
-                    // Extract Common Name (full name)
-                    RDN[] cnRdns = x500name.getRDNs(BCStyle.CN);
-                    if (cnRdns.length > 0) {
-                        String fullName = IETFUtils.valueToString(cnRdns[0].getFirst().getValue());
-                        result.put(prefix + "fullName", fullName);
+                    if (cert.fullName() != null) {
+                        result.put(prefix + "fullName", cert.fullName());
                     }
-
-                    // Extract Given Name
-                    RDN[] givenNameRdns = x500name.getRDNs(BCStyle.GIVENNAME);
-                    if (givenNameRdns.length > 0) {
-                        String givenName = IETFUtils.valueToString(givenNameRdns[0].getFirst().getValue());
-                        result.put(prefix + "givenName", givenName);
+                    if (cert.givenName() != null) {
+                        result.put(prefix + "givenName", cert.givenName());
                     }
-
-                    // Extract Surname
-                    RDN[] surnameRdns = x500name.getRDNs(BCStyle.SURNAME);
-                    if (surnameRdns.length > 0) {
-                        String surname = IETFUtils.valueToString(surnameRdns[0].getFirst().getValue());
-                        result.put(prefix + "surname", surname);
+                    if (cert.surname() != null) {
+                        result.put(prefix + "surname", cert.surname());
                     }
-
-                    // Extract Serial Number (often contains fiscal/tax code)
-                    RDN[] serialRdns = x500name.getRDNs(BCStyle.SERIALNUMBER);
-                    if (serialRdns.length > 0) {
-                        String serialNumber = IETFUtils.valueToString(serialRdns[0].getFirst().getValue());
-                        String fiscalCode = extractFiscalCode(serialNumber);
-                        result.put(prefix + "fiscalCode", fiscalCode);
-                        System.out.println("Fiscal Code: " + fiscalCode);
+                    if (cert.fiscalCode() != null) {
+                        result.put(prefix + "fiscalCode", cert.fiscalCode());
+                        System.out.println("Fiscal Code: " + cert.fiscalCode());
                     }
+                    result.put(prefix + "chainStatus", cert.chainStatus().name());
 
                     // Certificate validity dates
-                    Date validFrom = cert.getNotBefore();
-                    Date validTo = cert.getNotAfter();
-                    result.put(prefix + "validFrom", sdf.format(validFrom));
-                    result.put(prefix + "validTo", sdf.format(validTo));
+                    Date validFrom = holder.getNotBefore();
+                    Date validTo = holder.getNotAfter();
+                    result.put(prefix + "validFrom", DATE_FORMAT.format(validFrom.toInstant()));
+                    result.put(prefix + "validTo", DATE_FORMAT.format(validTo.toInstant()));
                     System.out.println("Certificate valid from: " + validFrom);
                     System.out.println("Certificate valid to: " + validTo);
 
@@ -141,29 +125,13 @@ public class PdfBouncySign160 {
             e.printStackTrace();
         } catch (DecoderException e) {
             System.err.println("Base64 decoding error");
+        } catch (IOException e) {
+            System.err.println("Certificate parsing error: " + e.getMessage());
         }
 
         return result;
     }
 
-    /**
-     * Extracts the fiscal code from a serial number field.
-     * Handles various formats: "TINIT-XXXXX", "CF:XXXXX", "IT-XXXXX"
-     */
-    private static String extractFiscalCode(String serialNumber) {
-        int colonIndex = serialNumber.indexOf(":");
-        int dashIndex = serialNumber.indexOf("-");
-
-        if (colonIndex != -1) {
-            return serialNumber.substring(colonIndex + 1).trim().toUpperCase();
-        } else if (dashIndex != -1) {
-            return serialNumber.substring(dashIndex + 1).trim().toUpperCase();
-        } else if (serialNumber.length() > 3) {
-            return serialNumber.substring(3).trim().toUpperCase();
-        }
-        return serialNumber.trim().toUpperCase();
-    }
-
     public static void main(String[] args) {
         if (args.length > 0) {
             try {
@@ -51,7 +51,7 @@ public class PdfJavaSign {
 
         try {
             CMSSignedData signature = new CMSSignedData(contents);
-            Store<?> certStore = signature.getCertificates();
+            Store<X509CertificateHolder> certStore = signature.getCertificates();
             SignerInformationStore signers = signature.getSignerInfos();
             Collection<?> signerCollection = signers.getSigners();
 
@@ -61,11 +61,13 @@ public class PdfJavaSign {
 
             for (Object signerObj : signerCollection) {
                 SignerInformation signer = (SignerInformation) signerObj;
-                Collection<?> certCollection = certStore.getMatches(signer.getSID());
+                Collection<X509CertificateHolder> certCollection = certStore.getMatches(signer.getSID());
 
                 if (!certCollection.isEmpty()) {
-                    X509CertificateHolder cert = (X509CertificateHolder) certCollection.iterator().next();
-                    System.out.println("Found certificate for signer: " + cert.getSubject());
+                    CertificateCache.CachedCertificate cert =
+                            CertificateCache.getDefault().get(certCollection.iterator().next(), certStore);
+                    System.out.println("Found certificate for signer: " + cert.holder().getSubject()
+                            + ", chain " + cert.chainStatus());
                     verifiedCount++;
                 }
             }
@@ -1,6 +1,5 @@
 package pdfsign;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
@@ -9,15 +8,24 @@ import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
 import org.bouncycastle.asn1.*;
 import org.bouncycastle.asn1.cms.Attribute;
 import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cms.*;
 import org.bouncycastle.cms.jcajce.JcaSignerInfoGeneratorBuilder;
 import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
 import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 import org.bouncycastle.util.Store;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
@@ -41,7 +49,7 @@ import java.util.Collection;
  *   <li>pdf.signer.location - signing location</li>
  * </ul>
  */
-public class PdfSigner implements SignatureInterface {
+public class PdfSigner implements SignatureInterface, AutoCloseable {
 
     private static final String PROVIDER_BC = "BC";
     private static final String KEYSTORE_TYPE_PKCS12 = "PKCS12";
@@ -58,7 +66,11 @@ public class PdfSigner implements SignatureInterface {
 
     private final PrivateKey privateKey;
     private final Certificate[] certificateChain;
-    private final String tsaUrl;
+    private final Store<X509CertificateHolder> certificateStore;
+    private final DigestCalculatorProvider digestCalculatorProvider;
+    // Read once per signature: may be replaced while a batch is signing
+    private volatile PooledTimeStampClient timeStampClient;
+    private PooledTimeStampClient ownedTimeStampClient;
     private final String signerName;
     private final String signingReason;
     private final String signingLocation;
@@ -93,7 +105,11 @@ public class PdfSigner implements SignatureInterface {
                      String tsaUrl, String signerName, String signingReason, String signingLocation) {
         Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
 
-        this.tsaUrl = tsaUrl;
+        // One client per signer: connections and tokens are reused across signatures
+        this.ownedTimeStampClient = tsaUrl != null && !tsaUrl.isEmpty()
+                ? new PooledTimeStampClient(new TimeStampClient(tsaUrl, null, null))
+                : null;
+        this.timeStampClient = ownedTimeStampClient;
         this.signerName = signerName;
         this.signingReason = signingReason;
         this.signingLocation = signingLocation;
@@ -123,8 +139,14 @@ public class PdfSigner implements SignatureInterface {
                 throw new RuntimeException("Could not load private key or certificate chain for alias: " + effectiveAlias);
             }
 
-        } catch (KeyStoreException | NoSuchProviderException | IOException |
-                 NoSuchAlgorithmException | CertificateException | UnrecoverableKeyException e) {
+            // Shared by every signature: built once instead of per document
+            certificateStore = new JcaCertStore(Arrays.asList(certificateChain));
+            digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder()
+                    .setProvider(PROVIDER_BC)
+                    .build();
+
+        } catch (KeyStoreException | NoSuchProviderException | IOException | NoSuchAlgorithmException |
+                 CertificateException | UnrecoverableKeyException | OperatorCreationException e) {
             throw new RuntimeException("Error while loading certificates and private key", e);
         }
     }
@@ -140,6 +162,7 @@ public class PdfSigner implements SignatureInterface {
     public static void main(String[] args) {
         if (args.length < 2) {
             System.out.println("Usage: PdfSigner <source-pdf> <destination-pdf>");
+            System.out.println("       PdfSigner --append <pdf>   (adds a signature in place)");
             System.out.println();
             System.out.println("Configuration via system properties:");
             System.out.println("  -Dpdf.signer.keystore=<path>     Path to PKCS#12 keystore");
@@ -152,8 +175,18 @@ public class PdfSigner implements SignatureInterface {
             return;
         }
 
-        PdfSigner signer = new PdfSigner();
-        signer.signPdf(args[0], args[1]);
+        try (PdfSigner signer = new PdfSigner()) {
+            if ("--append".equals(args[0])) {
+                try {
+                    long appended = signer.appendSignature(Paths.get(args[1]));
+                    System.out.println("Signature appended to " + args[1] + ": " + appended + " bytes written");
+                } catch (IOException e) {
+                    throw new RuntimeException("Error while signing PDF: " + args[1], e);
+                }
+                return;
+            }
+            signer.signPdf(args[0], args[1]);
+        }
     }
 
     /**
@@ -163,53 +196,131 @@ public class PdfSigner implements SignatureInterface {
      * @param destinationPath path for the signed PDF output
      */
     public void signPdf(String sourcePath, String destinationPath) {
-        File sourceFile = new File(sourcePath);
-        File destFile = new File(destinationPath);
+        Path destination = Paths.get(destinationPath);
 
         // Create output directory if needed
-        destFile.getParentFile().mkdirs();
+        if (destination.getParent() != null) {
+            destination.getParent().toFile().mkdirs();
+        }
 
         try {
-            // Copy source to destination first
-            try (FileInputStream fis = new FileInputStream(sourceFile);
-                 FileOutputStream fos = new FileOutputStream(destFile)) {
-                byte[] buffer = new byte[8 * 1024];
-                int bytesRead;
-                while ((bytesRead = fis.read(buffer)) != -1) {
-                    fos.write(buffer, 0, bytesRead);
-                }
-            }
+            signPdf(Paths.get(sourcePath), destination);
+            System.out.println("PDF signed successfully: " + destinationPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Error while signing PDF: " + sourcePath, e);
+        }
+    }
 
-            // Load and sign the document
-            try (PDDocument doc = Loader.loadPDF(destFile);
-                 FileOutputStream fos = new FileOutputStream(destFile)) {
+    /**
+     * Signs a PDF document without console output, safe to call from several threads.
+     * The source is read once: the incremental save copies its bytes to the destination
+     * and appends the signature, so no separate copy of the file is needed.
+     *
+     * @param source      the source PDF
+     * @param destination the signed PDF, overwritten if it exists
+     * @throws IOException if reading, signing or writing fails
+     */
+    public void signPdf(Path source, Path destination) throws IOException {
+        try (PDDocument doc = Loader.loadPDF(source.toFile());
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(destination))) {
+            doc.addSignature(createSignature(), this, createSignatureOptions());
+            doc.saveIncremental(out);
+        }
+    }
 
-                PDSignature signature = new PDSignature();
-                signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
-                signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
-                signature.setName(signerName);
-                signature.setReason(signingReason);
-                signature.setLocation(signingLocation);
-                signature.setSignDate(Calendar.getInstance());
+    /**
+     * Adds a signature to a PDF in place, keeping the signatures it already has.
+     * Only the incremental update section is written: the original bytes stay where they are, so writes scale
+     * with the size of the update (a few kilobytes) instead of the whole file. Reads are still two passes over
+     * the original: PDFBox copies it to the output before writing the update, which is discarded here, and reads
+     * it again for the ByteRange digest. If signing fails the file is truncated back to its original length.
+     *
+     * @param file the PDF to sign, signed or not
+     * @return the number of bytes appended
+     * @throws IOException if reading, signing or writing fails
+     */
+    public long appendSignature(Path file) throws IOException {
+        long originalLength = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.position(originalLength);
+            // The document keeps reading the first originalLength bytes only, never the appended section
+            try (PDDocument doc = Loader.loadPDF(file.toFile())) {
+                doc.addSignature(createSignature(), this, createSignatureOptions());
+                AppendOnlyOutputStream out = new AppendOnlyOutputStream(channel, originalLength);
+                doc.saveIncremental(out);
+                out.close();
+                channel.force(false);
+                return out.getAppended();
+            } catch (IOException | RuntimeException e) {
+                channel.truncate(originalLength);
+                throw e;
+            }
+        }
+    }
 
-                SignatureOptions signatureOptions = new SignatureOptions();
-                signatureOptions.setPreferredSignatureSize(DEFAULT_SIGNATURE_SIZE);
-                doc.addSignature(signature, this, signatureOptions);
+    /**
+     * Creates the signature dictionary with this signer's name, reason and location.
+     */
+    PDSignature createSignature() {
+        PDSignature signature = new PDSignature();
+        signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+        signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+        signature.setName(signerName);
+        signature.setReason(signingReason);
+        signature.setLocation(signingLocation);
+        signature.setSignDate(Calendar.getInstance());
+        return signature;
+    }
 
-                doc.saveIncremental(fos);
-            }
+    SignatureOptions createSignatureOptions() {
+        SignatureOptions signatureOptions = new SignatureOptions();
+        signatureOptions.setPreferredSignatureSize(DEFAULT_SIGNATURE_SIZE);
+        return signatureOptions;
+    }
 
-            System.out.println("PDF signed successfully: " + destinationPath);
+    /**
+     * Replaces the timestamp client, e.g. with one over a {@link FakeTsaTransport}; null disables timestamping.
+     * The client created by this signer from the TSA URL is closed; a client passed in is closed by the caller.
+     * Signatures whose timestamp was already requested finish normally.
+     */
+    public synchronized void setTimeStampClient(PooledTimeStampClient timeStampClient) {
+        this.timeStampClient = timeStampClient;
+        if (timeStampClient != ownedTimeStampClient) {
+            closeOwnedTimeStampClient();
+        }
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error while signing PDF: " + sourcePath, e);
+    /**
+     * Closes the timestamp client created by this signer, if any. Signing still works afterwards,
+     * without timestamps unless another client is set.
+     */
+    @Override
+    public synchronized void close() {
+        if (timeStampClient == ownedTimeStampClient) {
+            timeStampClient = null;
+        }
+        closeOwnedTimeStampClient();
+    }
+
+    private void closeOwnedTimeStampClient() {
+        if (ownedTimeStampClient != null) {
+            ownedTimeStampClient.close();
+            ownedTimeStampClient = null;
         }
     }
 
+    /**
+     * Exposes this signer's key as a {@link BatchKeySigner}, for {@link DeferredPdfSigner}.
+     */
+    public BatchKeySigner asBatchKeySigner() {
+        X509Certificate[] chain = Arrays.stream(certificateChain)
+                .map(X509Certificate.class::cast)
+                .toArray(X509Certificate[]::new);
+        return new LocalBatchKeySigner(privateKey, chain, SIGNATURE_ALGORITHM);
+    }
+
     @Override
     public byte[] sign(InputStream content) throws IOException {
-        byte[] contentBytes = IOUtils.toByteArray(content);
-
         try {
             CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
 
@@ -218,21 +329,34 @@ public class PdfSigner implements SignatureInterface {
                     .build(privateKey);
 
             generator.addSignerInfoGenerator(
-                    new JcaSignerInfoGeneratorBuilder(
-                            new JcaDigestCalculatorProviderBuilder()
-                                    .setProvider(PROVIDER_BC)
-                                    .build())
+                    new JcaSignerInfoGeneratorBuilder(digestCalculatorProvider)
                             .build(signer, (X509Certificate) certificateChain[0]));
 
-            Store certs = new JcaCertStore(Arrays.asList(certificateChain));
-            generator.addCertificates(certs);
+            generator.addCertificates(certificateStore);
 
-            CMSTypedData msg = new CMSProcessableByteArray(contentBytes);
+            // Detached signature: the content is streamed once into the digest, never held in memory
+            CMSTypedData msg = new CMSTypedData() {
+                @Override
+                public ASN1ObjectIdentifier getContentType() {
+                    return CMSObjectIdentifiers.data;
+                }
+
+                @Override
+                public void write(OutputStream out) throws IOException {
+                    content.transferTo(out);
+                }
+
+                @Override
+                public Object getContent() {
+                    return content;
+                }
+            };
             CMSSignedData signedData = generator.generate(msg, false);
 
             // Add timestamp if TSA URL is configured
-            if (tsaUrl != null && !tsaUrl.isEmpty()) {
-                signedData = addTimestamp(signedData);
+            PooledTimeStampClient tsa = timeStampClient;
+            if (tsa != null) {
+                signedData = addTimestamp(signedData, tsa);
             }
 
             // Transcode BER to DER
@@ -247,15 +371,13 @@ public class PdfSigner implements SignatureInterface {
         }
     }
 
-    private CMSSignedData addTimestamp(CMSSignedData signedData) throws Exception {
+    private CMSSignedData addTimestamp(CMSSignedData signedData, PooledTimeStampClient tsa) throws Exception {
         Collection<?> signers = signedData.getSignerInfos().getSigners();
         SignerInformation signerInfo = (SignerInformation) signers.iterator().next();
 
-        TimeStampClient timeStampClient = new TimeStampClient(tsaUrl, null, null);
-
         MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM_SHA256, PROVIDER_BC);
         byte[] digest = md.digest(signerInfo.getSignature());
-        byte[] timestampToken = timeStampClient.stamp(digest);
+        byte[] timestampToken = tsa.stamp(digest);
 
         ASN1InputStream tempStream = new ASN1InputStream(new ByteArrayInputStream(timestampToken));
         ASN1Sequence seq = (ASN1Sequence) tempStream.readObject();
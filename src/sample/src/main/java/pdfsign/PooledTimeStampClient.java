@@ -0,0 +1,207 @@
+package pdfsign;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent, caching front end of a {@link TimeStampClient}.
+ * Requests run on a bounded pool, so at most {@code maxInFlight} are outstanding at the TSA at the same time;
+ * callers can submit many digests at once and collect the tokens as they arrive. Idle pool threads time out,
+ * so a client that is never closed does not keep threads alive.
+ * Tokens are kept in a bounded LRU cache keyed by digest, and concurrent requests for the same digest
+ * share a single TSA round trip.
+ *
+ * <p>Example usage:
+ * <pre>
+ * PooledTimeStampClient client = new PooledTimeStampClient(new TimeStampClient("https://freetsa.org/tsr", null, null));
+ * List&lt;byte[]&gt; tokens = client.stampAll(digests);
+ * </pre>
+ */
+public class PooledTimeStampClient implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    public static final int DEFAULT_CACHE_SIZE = 1_000;
+
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+    private final TimeStampClient client;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<byte[]>> cache;
+    private boolean closed;
+    private long hits;
+    private long requests;
+    private long failures;
+
+    public PooledTimeStampClient(TimeStampClient client) {
+        this(client, DEFAULT_MAX_IN_FLIGHT, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param client      the underlying client
+     * @param maxInFlight maximum number of concurrent requests to the TSA
+     * @param cacheSize   maximum number of cached tokens
+     */
+    public PooledTimeStampClient(TimeStampClient client, int maxInFlight, int cacheSize) {
+        this.client = client;
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(maxInFlight, 1);
+        this.executor = new ThreadPoolExecutor(threads, threads, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "tsa-client-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<byte[]>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Requests a timestamp and waits for it.
+     * Callers must not modify the returned token, which may be shared through the cache.
+     *
+     * @param digest the SHA-256 hash to timestamp
+     * @return the encoded timestamp token bytes
+     * @throws Exception if the TSA request fails, as for {@link TimeStampClient#stamp}
+     */
+    public byte[] stamp(byte[] digest) throws Exception {
+        try {
+            return stampAsync(digest).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Requests a timestamp without waiting.
+     *
+     * @param digest the SHA-256 hash to timestamp
+     * @return the future token, completed exceptionally if the request fails
+     * @throws IllegalStateException if the client is closed
+     */
+    public CompletableFuture<byte[]> stampAsync(byte[] digest) {
+        String key = HexFormat.of().formatHex(digest);
+        CompletableFuture<byte[]> token;
+        synchronized (cache) {
+            if (closed) {
+                throw new IllegalStateException("Timestamp client is closed");
+            }
+            CompletableFuture<byte[]> cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            token = new CompletableFuture<>();
+            cache.put(key, token);
+            requests++;
+        }
+
+        byte[] copy = digest.clone();
+        try {
+            executor.execute(() -> {
+                try {
+                    token.complete(client.stamp(copy));
+                } catch (Exception e) {
+                    fail(key, token, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently: callers already sharing the entry must not wait forever
+            fail(key, token, e);
+        }
+        return token;
+    }
+
+    private void fail(String key, CompletableFuture<byte[]> token, Exception e) {
+        synchronized (cache) {
+            // Do not cache failures: the next caller retries
+            cache.remove(key, token);
+            failures++;
+        }
+        token.completeExceptionally(e);
+    }
+
+    /**
+     * Requests timestamps for many digests, keeping up to {@code maxInFlight} requests outstanding.
+     *
+     * @param digests the SHA-256 hashes to timestamp
+     * @return the tokens, in the same order
+     * @throws Exception if any request fails
+     */
+    public List<byte[]> stampAll(List<byte[]> digests) throws Exception {
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>(digests.size());
+        for (byte[] digest : digests) {
+            futures.add(stampAsync(digest));
+        }
+        List<byte[]> tokens = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<byte[]> future : futures) {
+                tokens.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        return tokens;
+    }
+
+    public TimeStampClient getClient() {
+        return client;
+    }
+
+    /**
+     * Stops accepting requests; requests already submitted still complete.
+     */
+    @Override
+    public void close() {
+        synchronized (cache) {
+            closed = true;
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (cache) {
+            return "PooledTimeStampClient [cached=" + cache.size() + ", hits=" + hits + ", requests=" + requests
+                    + ", failures=" + failures + "]";
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_IN_FLIGHT;
+        long latency = 50;
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        List<byte[]> digests = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            // One digest in ten repeats, like re-stamped documents
+            digests.add(md.digest(("document " + (i % 10 == 9 ? i - 1 : i)).getBytes()));
+        }
+
+        FakeTsaTransport tsa = new FakeTsaTransport(latency);
+        try (PooledTimeStampClient client = new PooledTimeStampClient(new TimeStampClient(tsa), maxInFlight, DEFAULT_CACHE_SIZE)) {
+            long start = System.nanoTime();
+            List<byte[]> tokens = client.stampAll(digests);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%d tokens in %d ms (%.1f/s) with %d in flight, %d ms TSA latency%n",
+                    tokens.size(), elapsed, tokens.size() * 1000d / Math.max(elapsed, 1), maxInFlight, latency);
+            System.out.println(client + ", TSA requests: " + tsa.getRequestCount());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package pdfsign;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Revocation lookup for a certificate, e.g. through OCSP or a CRL.
+ * Implementations may be slow (network); {@link CertificateCache} caches their answers.
+ */
+@FunctionalInterface
+public interface RevocationChecker {
+
+    /**
+     * Does not check revocation at all.
+     */
+    RevocationChecker NONE = (certificate, issuer) -> Status.NOT_CHECKED;
+
+    /**
+     * Checks whether a certificate is revoked.
+     *
+     * @param certificate the certificate to check
+     * @param issuer      its issuer, signing the OCSP response or CRL
+     * @return the revocation status
+     * @throws IOException if the responder or distribution point cannot be reached
+     */
+    Status check(X509Certificate certificate, X509Certificate issuer) throws IOException;
+
+    enum Status {
+        GOOD, REVOKED, UNKNOWN, NOT_CHECKED
+    }
+}
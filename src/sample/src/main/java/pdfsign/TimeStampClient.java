@@ -3,19 +3,15 @@ package pdfsign;
 import org.bouncycastle.tsp.*;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigInteger;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.security.SecureRandom;
 
 /**
  * Client for requesting timestamps from a Time Stamping Authority (TSA).
- * Implements RFC 3161 Time-Stamp Protocol over HTTP.
+ * Implements RFC 3161 Time-Stamp Protocol over HTTP, or over any {@link TsaTransport}.
  *
  * <p>Supports both authenticated and anonymous TSA access.
+ * The client is thread-safe; see {@link PooledTimeStampClient} for concurrent requests and token caching.
  *
  * <p>Example usage:
  * <pre>
@@ -26,13 +22,11 @@ import java.util.Base64;
  */
 public class TimeStampClient {
 
-    private static final String CONTENT_TYPE_TIMESTAMP_QUERY = "application/timestamp-query";
     private static final int DEFAULT_TIMEOUT_MS = 30000;
 
     private final String tsaUrl;
-    private final String username;
-    private final String password;
-    private final int timeoutMs;
+    private final TsaTransport transport;
+    private final SecureRandom random = new SecureRandom();
 
     /**
      * Creates a TimeStampClient with default timeout.
@@ -58,9 +52,17 @@ public class TimeStampClient {
             throw new IllegalArgumentException("TSA URL cannot be null or empty");
         }
         this.tsaUrl = tsaUrl;
-        this.username = username;
-        this.password = password;
-        this.timeoutMs = timeoutMs;
+        this.transport = new HttpTsaTransport(tsaUrl, username, password, timeoutMs);
+    }
+
+    /**
+     * Creates a TimeStampClient over a custom transport, e.g. {@link FakeTsaTransport}.
+     *
+     * @param transport the transport carrying requests to the TSA
+     */
+    public TimeStampClient(TsaTransport transport) {
+        this.tsaUrl = null;
+        this.transport = transport;
     }
 
     /**
@@ -79,11 +81,12 @@ public class TimeStampClient {
         TimeStampRequestGenerator requestGenerator = new TimeStampRequestGenerator();
         requestGenerator.setCertReq(true);
 
-        BigInteger nonce = BigInteger.valueOf(System.currentTimeMillis());
+        // Random nonce: requests sent in the same millisecond must not share it
+        BigInteger nonce = new BigInteger(64, random);
         TimeStampRequest request = requestGenerator.generate(TSPAlgorithms.SHA256, digest, nonce);
         byte[] requestBytes = request.getEncoded();
 
-        byte[] responseBytes = sendRequest(requestBytes);
+        byte[] responseBytes = transport.send(requestBytes);
 
         TimeStampResponse response = new TimeStampResponse(responseBytes);
         response.validate(request);
@@ -99,55 +102,7 @@ public class TimeStampClient {
     }
 
     /**
-     * Sends the timestamp request to the TSA.
-     *
-     * @param requestBytes the encoded timestamp request
-     * @return the TSA response bytes
-     * @throws IOException if network communication fails
-     */
-    private byte[] sendRequest(byte[] requestBytes) throws IOException {
-        URL url = new URL(tsaUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-        try {
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-Type", CONTENT_TYPE_TIMESTAMP_QUERY);
-            connection.setRequestProperty("Content-Length", String.valueOf(requestBytes.length));
-            connection.setConnectTimeout(timeoutMs);
-            connection.setReadTimeout(timeoutMs);
-
-            // Add Basic authentication if credentials provided
-            if (username != null && password != null) {
-                String auth = username + ":" + password;
-                String encoded = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-                connection.setRequestProperty("Authorization", "Basic " + encoded);
-            }
-
-            // Send request
-            try (OutputStream out = connection.getOutputStream()) {
-                out.write(requestBytes);
-                out.flush();
-            }
-
-            // Check response code
-            int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new IOException("TSA returned HTTP " + responseCode + ": " + connection.getResponseMessage());
-            }
-
-            // Read response
-            try (InputStream in = connection.getInputStream()) {
-                return in.readAllBytes();
-            }
-        } finally {
-            connection.disconnect();
-        }
-    }
-
-    /**
-     * Returns the TSA URL.
+     * Returns the TSA URL, or null when a custom transport is used.
      */
     public String getTsaUrl() {
         return tsaUrl;
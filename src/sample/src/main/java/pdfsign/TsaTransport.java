@@ -0,0 +1,20 @@
+package pdfsign;
+
+import java.io.IOException;
+
+/**
+ * Carries an encoded RFC 3161 request to a Time Stamping Authority and returns its encoded response.
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface TsaTransport {
+
+    /**
+     * Sends a timestamp request.
+     *
+     * @param request the DER encoded TimeStampReq
+     * @return the DER encoded TimeStampResp
+     * @throws IOException if the TSA cannot be reached or answers with an error
+     */
+    byte[] send(byte[] request) throws IOException;
+}
@@ -0,0 +1,71 @@
+package reflection;
+
+import models.entity.City;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import utility.PatchPlan;
+
+import java.beans.FeatureDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Partial update of 100k City entities: BeanWrapper walk per entity
+ * (the old UtilsReflection.getNotNullPropertyNamesList approach) versus a compiled PatchPlan.
+ */
+public class PatchPlanBenchmark {
+
+    private static final int ENTITIES = 100_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        List<City> patches = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            // Sparse patch: only a few fields set, like a REST partial update
+            City patch = new City(null, "City " + i, null, 45.0 + i);
+            patch.setParkingZoneList(null);
+            patches.add(patch);
+        }
+
+        PatchPlan<City, City> plan = PatchPlan.of(City.class, City.class);
+        System.out.println("=== Patch benchmark (" + ENTITIES + " entities) ===");
+        System.out.println("Plan properties: " + plan.getPropertyNames());
+
+        for (int r = 0; r < ROUNDS; r++) {
+            List<City> targets = newTargets();
+            long start = System.nanoTime();
+            for (int i = 0; i < ENTITIES; i++) {
+                legacyCopyNotNull(patches.get(i), targets.get(i));
+            }
+            long legacy = System.nanoTime() - start;
+
+            targets = newTargets();
+            start = System.nanoTime();
+            plan.applyAll(patches, targets);
+            long compiled = System.nanoTime() - start;
+
+            System.out.printf("Round %d: BeanWrapper %8.2f ms  PatchPlan %8.2f ms%n", r, legacy / 1e6, compiled / 1e6);
+        }
+    }
+
+    private static List<City> newTargets() {
+        List<City> targets = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            targets.add(new City((long) i, "Old " + i, "OLD", 0d, 0d, Boolean.TRUE, "http://old/" + i));
+        }
+        return targets;
+    }
+
+    private static void legacyCopyNotNull(Object source, Object target) {
+        final BeanWrapper wrappedSource = new BeanWrapperImpl(source);
+        final BeanWrapper wrappedTarget = new BeanWrapperImpl(target);
+        Stream.of(wrappedSource.getPropertyDescriptors())
+                .map(FeatureDescriptor::getName)
+                .filter(name -> {
+                    Object obj = wrappedSource.getPropertyValue(name);
+                    return obj != null && !(obj instanceof List<?> || obj instanceof Class<?>);
+                })
+                .forEach(name -> wrappedTarget.setPropertyValue(name, wrappedSource.getPropertyValue(name)));
+    }
+}
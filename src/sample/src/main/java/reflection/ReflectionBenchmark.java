@@ -0,0 +1,76 @@
+package reflection;
+
+import lombok.SneakyThrows;
+import models.entity.City;
+import utility.UtilsReflection;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the legacy PropertyDescriptor + Method.invoke getter/setter path
+ * with the cached MethodHandle accessors behind UtilsReflection.
+ * Plain nanoTime harness: warm up first, then measure several rounds.
+ */
+public class ReflectionBenchmark {
+
+    private static final int ENTITIES = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final String[] PROPERTIES = {"name", "administrativeAreaLevel2Code", "latitude", "url"};
+
+    public static void main(String[] args) {
+        List<City> cities = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            cities.add(new City((long) i, "City " + i, "C" + i, 45.0 + i, 9.0, Boolean.FALSE, "http://city/" + i));
+        }
+
+        System.out.println("=== Getter/Setter benchmark (" + ENTITIES + " entities x " + PROPERTIES.length + " properties) ===");
+        run("legacy PropertyDescriptor", cities, true);
+        run("cached MethodHandle", cities, false);
+    }
+
+    private static void run(String label, List<City> cities, boolean legacy) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round(cities, legacy);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += round(cities, legacy);
+        }
+        long elapsed = System.nanoTime() - start;
+        long calls = (long) ROUNDS * cities.size() * PROPERTIES.length * 2;
+        System.out.printf("%-28s %8.2f ms/round  %8.1f ns/call  (sink %d)%n",
+                label, elapsed / 1e6 / ROUNDS, (double) elapsed / calls, sink);
+    }
+
+    private static long round(List<City> cities, boolean legacy) {
+        long sink = 0;
+        for (City city : cities) {
+            for (String property : PROPERTIES) {
+                Object value = legacy ? legacyGetter(city, property) : UtilsReflection.callGetter(city, property);
+                if (legacy) {
+                    legacySetter(city, property, value);
+                } else {
+                    UtilsReflection.callSetter(city, property, value);
+                }
+                sink += value != null ? 1 : 0;
+            }
+        }
+        return sink;
+    }
+
+    @SneakyThrows
+    private static Object legacyGetter(Object obj, String fieldName) {
+        PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
+        return pd.getReadMethod().invoke(obj);
+    }
+
+    @SneakyThrows
+    private static void legacySetter(Object obj, String fieldName, Object value) {
+        PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
+        pd.getWriteMethod().invoke(obj, value);
+    }
+}
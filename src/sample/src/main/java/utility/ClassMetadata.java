@@ -0,0 +1,193 @@
+package utility;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the field metadata of a class used by the JPA helpers in {@link UtilsReflection}.
+ * Built lazily on first access and stored in a {@link ClassValue}, so it does not leak class loaders.
+ */
+public final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<Field> declaredFields;
+    private final Field idField;
+    private final List<Field> relationFields;
+    private final Map<Field, String> mappedBy;
+    private final Map<Field, Class<?>> elementTypes;
+    private final List<Field> requiredFields;
+    private final Map<Class<? extends Annotation>, List<Field>> annotatedFields = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        this.declaredFields = List.of(type.getDeclaredFields());
+        this.idField = findIdField(type);
+
+        List<Field> relations = new ArrayList<>();
+        Map<Field, String> mapped = new LinkedHashMap<>();
+        Map<Field, Class<?>> elements = new LinkedHashMap<>();
+        List<Field> required = new ArrayList<>();
+        for (Field f : declaredFields) {
+            String relationMappedBy = relationMappedBy(f);
+            if (relationMappedBy != null) {
+                relations.add(f);
+                mapped.put(f, relationMappedBy);
+            }
+            elements.put(f, elementType(f));
+            if (f.getDeclaredAnnotationsByType(NotNull.class).length > 0
+                    || f.getDeclaredAnnotationsByType(NotEmpty.class).length > 0) {
+                required.add(f);
+            }
+        }
+        this.relationFields = Collections.unmodifiableList(relations);
+        this.mappedBy = Collections.unmodifiableMap(mapped);
+        this.elementTypes = Collections.unmodifiableMap(elements);
+        this.requiredFields = Collections.unmodifiableList(required);
+    }
+
+    /**
+     * Gets the metadata of a class, building it on first use.
+     *
+     * @param clazz Class to analyze
+     * @return Cached metadata
+     */
+    public static ClassMetadata of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the fields declared directly on the class.
+     *
+     * @return Unmodifiable list of fields
+     */
+    public List<Field> getDeclaredFields() {
+        return declaredFields;
+    }
+
+    /**
+     * Gets the field annotated with @Id, searching the superclasses too.
+     *
+     * @return Optional containing the id field
+     */
+    public Optional<Field> getIdField() {
+        return Optional.ofNullable(idField);
+    }
+
+    /**
+     * Gets the declared fields with a @OneToOne, @OneToMany or @ManyToMany relation.
+     *
+     * @return Unmodifiable list of relation fields
+     */
+    public List<Field> getRelationFields() {
+        return relationFields;
+    }
+
+    /**
+     * Gets the declared fields annotated with @NotNull or @NotEmpty.
+     *
+     * @return Unmodifiable list of required fields
+     */
+    public List<Field> getRequiredFields() {
+        return requiredFields;
+    }
+
+    /**
+     * Gets the declared fields with a specific annotation.
+     *
+     * @param annotationClass Annotation class to search for
+     * @return Unmodifiable list of annotated fields
+     */
+    public List<Field> getAnnotatedFields(Class<? extends Annotation> annotationClass) {
+        return annotatedFields.computeIfAbsent(annotationClass, a -> declaredFields.stream()
+                .filter(f -> f.getDeclaredAnnotationsByType(a).length > 0)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Gets the declared fields whose type, or List/Set element type, equals the target class.
+     *
+     * @param targetClass Target class to search for
+     * @return List of matching fields
+     */
+    public List<Field> getFieldsOfType(Class<?> targetClass) {
+        return declaredFields.stream()
+                .filter(f -> targetClass.equals(elementTypes.get(f)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the relation fields whose mappedBy equals the given name.
+     *
+     * @param fieldName mappedBy field name to search for
+     * @return List of matching fields
+     */
+    public List<Field> getRelationFieldsMappedBy(String fieldName) {
+        return declaredFields.stream()
+                .filter(f -> fieldName.equals(mappedBy.getOrDefault(f, "")))
+                .collect(Collectors.toList());
+    }
+
+    private static Field findIdField(Class<?> clazz) {
+        while (clazz != null) {
+            Optional<Field> field = Arrays.stream(clazz.getDeclaredFields())
+                    .filter(f -> f.getDeclaredAnnotationsByType(Id.class).length > 0)
+                    .findFirst();
+            if (field.isPresent()) {
+                return field.get();
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return null;
+    }
+
+    private static String relationMappedBy(Field f) {
+        OneToOne oneToOne = f.getAnnotation(OneToOne.class);
+        OneToMany oneToMany = f.getAnnotation(OneToMany.class);
+        ManyToMany manyToMany = f.getAnnotation(ManyToMany.class);
+        return oneToOne != null ? oneToOne.mappedBy()
+                : oneToMany != null ? oneToMany.mappedBy()
+                : manyToMany != null ? manyToMany.mappedBy() : null;
+    }
+
+    private static Class<?> elementType(Field f) {
+        Class<?> classToCheck = f.getType();
+        if (f.getType().isAssignableFrom(List.class) || f.getType().isAssignableFrom(Set.class)) {
+            Type generic = f.getGenericType();
+            if (generic instanceof ParameterizedType listType
+                    && listType.getActualTypeArguments()[0] instanceof Class<?> element) {
+                classToCheck = element;
+            }
+        }
+        return classToCheck;
+    }
+}
@@ -0,0 +1,142 @@
+package utility;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Compiled partial-update plan between a source and a target class.
+ * The matching readable/writable property pairs are resolved once through {@link PropertyAccessors};
+ * applying the plan only reads each source property and writes the non-null ones to the target.
+ * Lists and the class property are skipped, like {@link UtilsReflection#getNotNullPropertyNamesList(Object)}.
+ *
+ * @param <S> Source type
+ * @param <T> Target type
+ */
+public final class PatchPlan<S, T> {
+
+    private static final ClassValue<Map<Class<?>, PatchPlan<?, ?>>> PLANS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, PatchPlan<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<S> sourceClass;
+    private final Class<T> targetClass;
+    private final PropertyAccessors.Accessor[] readers;
+    private final PropertyAccessors.Accessor[] writers;
+
+    private PatchPlan(Class<S> sourceClass, Class<T> targetClass, Set<String> ignored) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        PropertyAccessors source = PropertyAccessors.forClass(sourceClass);
+        PropertyAccessors target = PropertyAccessors.forClass(targetClass);
+        List<PropertyAccessors.Accessor> r = new ArrayList<>();
+        List<PropertyAccessors.Accessor> w = new ArrayList<>();
+        source.accessors().forEach((name, reader) -> {
+            PropertyAccessors.Accessor writer = target.accessors().get(name);
+            if (ignored.contains(name) || writer == null || !reader.isReadable() || !writer.isWritable()
+                    || List.class.isAssignableFrom(reader.getPropertyType())
+                    || Class.class.equals(reader.getPropertyType())
+                    || !ClassUtils.isAssignable(reader.getPropertyType(), writer.getPropertyType(), true)) {
+                return;
+            }
+            r.add(reader);
+            w.add(writer);
+        });
+        this.readers = r.toArray(new PropertyAccessors.Accessor[0]);
+        this.writers = w.toArray(new PropertyAccessors.Accessor[0]);
+    }
+
+    /**
+     * Gets the cached plan for a source/target class pair.
+     *
+     * @param sourceClass Source class
+     * @param targetClass Target class
+     * @return The compiled plan
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> PatchPlan<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        return (PatchPlan<S, T>) PLANS.get(sourceClass)
+                .computeIfAbsent(targetClass, t -> new PatchPlan<>(sourceClass, t, Collections.emptySet()));
+    }
+
+    /**
+     * Compiles an uncached plan that also skips the given properties.
+     *
+     * @param sourceClass Source class
+     * @param targetClass Target class
+     * @param ignored     Property names to exclude
+     * @return The compiled plan
+     */
+    public static <S, T> PatchPlan<S, T> of(Class<S> sourceClass, Class<T> targetClass, String... ignored) {
+        return new PatchPlan<>(sourceClass, targetClass, Arrays.stream(ignored).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Copies the non-null properties of the source into the target.
+     *
+     * @param source Object to read
+     * @param target Object to modify
+     * @return The target
+     */
+    public T apply(S source, T target) {
+        try {
+            for (int i = 0; i < readers.length; i++) {
+                Object value = readers[i].get(source);
+                if (value != null && !(value instanceof List<?>)) {
+                    writers[i].set(target, value);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Error applying patch " + sourceClass.getName() + " -> " + targetClass.getName(), e);
+        }
+        return target;
+    }
+
+    /**
+     * Applies the plan pairwise over two lists of the same size.
+     *
+     * @param sources Objects to read
+     * @param targets Objects to modify
+     */
+    public void applyAll(List<? extends S> sources, List<? extends T> targets) {
+        if (sources.size() != targets.size()) {
+            throw new IllegalArgumentException("Sources and targets differ in size: " + sources.size() + " != " + targets.size());
+        }
+        for (int i = 0; i < sources.size(); i++) {
+            apply(sources.get(i), targets.get(i));
+        }
+    }
+
+    /**
+     * Applies the same source patch to every target.
+     *
+     * @param source  Object to read
+     * @param targets Objects to modify
+     */
+    public void applyAll(S source, List<? extends T> targets) {
+        for (T target : targets) {
+            apply(source, target);
+        }
+    }
+
+    /**
+     * Gets the names of the properties copied by the plan.
+     *
+     * @return List of property names
+     */
+    public List<String> getPropertyNames() {
+        return Arrays.stream(readers).map(PropertyAccessors.Accessor::getName).collect(Collectors.toList());
+    }
+}
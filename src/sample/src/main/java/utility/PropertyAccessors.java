@@ -0,0 +1,197 @@
+package utility;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-class registry of bean property accessors.
+ * Each class is introspected once and its getters/setters are kept as
+ * {@link MethodHandle}s, so repeated calls skip the {@link PropertyDescriptor} lookup
+ * and the {@link Method#invoke} overhead.
+ * Storage is backed by {@link ClassValue}, so entries do not pin class loaders.
+ */
+public final class PropertyAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<PropertyAccessors> REGISTRY = new ClassValue<>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Map<String, Accessor> accessors;
+
+    private PropertyAccessors(Class<?> type) {
+        this.type = type;
+        this.accessors = Collections.unmodifiableMap(introspect(type));
+    }
+
+    /**
+     * Gets the accessors of a class, introspecting it on first use.
+     *
+     * @param clazz Class to analyze
+     * @return Cached accessors of the class
+     */
+    public static PropertyAccessors forClass(Class<?> clazz) {
+        return REGISTRY.get(clazz);
+    }
+
+    /**
+     * Reads a property through its cached getter.
+     *
+     * @param target    Target object
+     * @param fieldName Property name
+     * @return Property value
+     */
+    public Object get(Object target, String fieldName) throws Throwable {
+        return accessor(fieldName).get(target);
+    }
+
+    /**
+     * Writes a property through its cached setter.
+     *
+     * @param target    Target object
+     * @param fieldName Property name
+     * @param value     Value to set
+     */
+    public void set(Object target, String fieldName, Object value) throws Throwable {
+        accessor(fieldName).set(target, value);
+    }
+
+    /**
+     * Gets the accessor of a property.
+     *
+     * @param fieldName Property name
+     * @return The accessor
+     * @throws IllegalArgumentException if the class has no such property
+     */
+    public Accessor accessor(String fieldName) {
+        Accessor accessor = accessors.get(fieldName);
+        if (accessor == null) {
+            throw new IllegalArgumentException("Property " + fieldName + " not found on " + type.getName());
+        }
+        return accessor;
+    }
+
+    /**
+     * Gets all accessors in introspection order.
+     *
+     * @return Map of property name -> accessor
+     */
+    public Map<String, Accessor> accessors() {
+        return accessors;
+    }
+
+    /**
+     * Gets the names of all properties of the class.
+     *
+     * @return Set of property names
+     */
+    public Set<String> propertyNames() {
+        return accessors.keySet();
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    private static Map<String, Accessor> introspect(Class<?> type) {
+        BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(type);
+        } catch (IntrospectionException e) {
+            throw new IllegalStateException("Unable to introspect " + type.getName(), e);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, Accessor> result = new LinkedHashMap<>();
+        for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
+            MethodHandle getter = unreflect(lookup, pd.getReadMethod(), GETTER_TYPE);
+            MethodHandle setter = unreflect(lookup, pd.getWriteMethod(), SETTER_TYPE);
+            if (getter != null || setter != null) {
+                result.put(pd.getName(), new Accessor(pd.getName(), pd.getPropertyType(), getter, setter));
+            }
+        }
+        return result;
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method, MethodType type) {
+        if (method == null) {
+            return null;
+        }
+        try {
+            return lookup.unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            // Non-public declaring class: retry once access checks are suppressed
+            if (method.trySetAccessible()) {
+                try {
+                    return lookup.unreflect(method).asType(type);
+                } catch (IllegalAccessException ignored) {
+                    // fall through
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolved getter/setter pair of a single property.
+     */
+    public static final class Accessor {
+
+        private final String name;
+        private final Class<?> propertyType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Accessor(String name, Class<?> propertyType, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.propertyType = propertyType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public Object get(Object target) throws Throwable {
+            if (getter == null) {
+                throw new IllegalArgumentException("Property " + name + " is not readable");
+            }
+            return (Object) getter.invokeExact(target);
+        }
+
+        public void set(Object target, Object value) throws Throwable {
+            if (setter == null) {
+                throw new IllegalArgumentException("Property " + name + " is not writable");
+            }
+            setter.invokeExact(target, value);
+        }
+
+        public boolean isReadable() {
+            return getter != null;
+        }
+
+        public boolean isWritable() {
+            return setter != null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getPropertyType() {
+            return propertyType;
+        }
+    }
+}
@@ -1,18 +1,8 @@
 package utility;
 
-import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
-
-import javax.persistence.Id;
-import javax.persistence.ManyToMany;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
-import java.beans.FeatureDescriptor;
-import java.beans.PropertyDescriptor;
+
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
@@ -47,8 +37,7 @@ public class UtilsReflection {
      */
     @SneakyThrows
     public static Object callGetter(Object obj, String fieldName) {
-        PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
-        return pd.getReadMethod().invoke(obj);
+        return PropertyAccessors.forClass(obj.getClass()).get(obj, fieldName);
     }
 
     /**
@@ -83,8 +72,7 @@ public class UtilsReflection {
      */
     @SneakyThrows
     public static void callSetter(Object obj, String fieldName, Object value) {
-        PropertyDescriptor pd = new PropertyDescriptor(fieldName, obj.getClass());
-        pd.getWriteMethod().invoke(obj, value);
+        PropertyAccessors.forClass(obj.getClass()).set(obj, fieldName, value);
     }
 
     /**
@@ -225,10 +213,9 @@ public class UtilsReflection {
      * @return Array of null property names
      */
     public static String[] getNullPropertyNames(Object source) {
-        final BeanWrapper wrappedSource = new BeanWrapperImpl(source);
-        return Stream.of(wrappedSource.getPropertyDescriptors())
-                .map(FeatureDescriptor::getName)
-                .filter(propertyName -> wrappedSource.getPropertyValue(propertyName) == null)
+        return readableAccessors(source)
+                .filter(a -> readProperty(a, source) == null)
+                .map(PropertyAccessors.Accessor::getName)
                 .toArray(String[]::new);
     }
 
@@ -239,12 +226,10 @@ public class UtilsReflection {
      * @return List of null property names or empty lists
      */
     public static List<String> getNullPropertyNamesList(Object source) {
-        final BeanWrapper wrappedSource = new BeanWrapperImpl(source);
-        return Stream.of(wrappedSource.getPropertyDescriptors())
-                .map(FeatureDescriptor::getName)
-                .filter(propertyName -> {
+        return readableAccessors(source)
+                .filter(a -> {
                     boolean res = false;
-                    Object obj = wrappedSource.getPropertyValue(propertyName);
+                    Object obj = readProperty(a, source);
                     if (obj != null) {
                         if (obj instanceof List<?> list) {
                             res = list.isEmpty();
@@ -256,6 +241,7 @@ public class UtilsReflection {
                     }
                     return res;
                 })
+                .map(PropertyAccessors.Accessor::getName)
                 .collect(Collectors.toList());
     }
 
@@ -266,24 +252,38 @@ public class UtilsReflection {
      * @return List of non-null property names
      */
     public static List<String> getNotNullPropertyNamesList(Object source) {
-        final BeanWrapper wrappedSource = new BeanWrapperImpl(source);
-        return Stream.of(wrappedSource.getPropertyDescriptors())
-                .map(FeatureDescriptor::getName)
-                .filter(propertyName -> {
-                    boolean res = true;
-                    Object obj = wrappedSource.getPropertyValue(propertyName);
-                    if (obj != null) {
-                        if (obj instanceof List<?> || obj instanceof Class<?>) {
-                            res = false;
-                        }
-                    } else {
-                        res = false;
-                    }
-                    return res;
+        return readableAccessors(source)
+                .filter(a -> {
+                    Object obj = readProperty(a, source);
+                    return obj != null && !(obj instanceof List<?> || obj instanceof Class<?>);
                 })
+                .map(PropertyAccessors.Accessor::getName)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Copies the non-null properties (excluding lists) of the source into the target,
+     * using the cached {@link PatchPlan} of the class pair.
+     *
+     * @param source Object to read
+     * @param target Object to modify
+     * @return The target
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> T copyNotNullProperties(S source, T target) {
+        return PatchPlan.of((Class<S>) source.getClass(), (Class<T>) target.getClass()).apply(source, target);
+    }
+
+    private static Stream<PropertyAccessors.Accessor> readableAccessors(Object source) {
+        return PropertyAccessors.forClass(source.getClass()).accessors().values().stream()
+                .filter(PropertyAccessors.Accessor::isReadable);
+    }
+
+    @SneakyThrows
+    private static Object readProperty(PropertyAccessors.Accessor accessor, Object source) {
+        return accessor.get(source);
+    }
+
     /**
      * Gets a map of getter methods with non-null values.
      *
@@ -296,15 +296,19 @@ public class UtilsReflection {
         Map<String, Object> methods = new HashMap<>();
         Class<?> clazz = entity.getClass();
         while (clazz != null) {
-            Map<String, Object> meths = Stream.of(clazz.getDeclaredMethods())
+            Stream.of(clazz.getDeclaredMethods())
                     .filter(m -> Arrays.stream(filters).noneMatch(m.getName()::equals) && m.getName().startsWith("get"))
                     .map(m -> {
                         String meth = m.getName().replace("get", "");
                         return String.valueOf(meth.charAt(0)).toLowerCase() + meth.substring(1);
                     })
-                    .filter(m -> callGetter(entity, m) != null)
-                    .collect(Collectors.toMap(m -> m, m -> callGetter(entity, m)));
-            methods.putAll(meths);
+                    .forEach(m -> {
+                        // Single getter call per property, the cached accessor does the rest
+                        Object value = callGetter(entity, m);
+                        if (value != null) {
+                            methods.put(m, value);
+                        }
+                    });
             clazz = superclass ? clazz.getSuperclass() : null;
         }
         return methods;
@@ -318,9 +322,7 @@ public class UtilsReflection {
      * @return Optional containing the field, empty if not found
      */
     public static Optional<Field> getFirstAnnotatedField(Class<?> clazz, Class<? extends Annotation> annotationClass) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(f -> f.getDeclaredAnnotationsByType(annotationClass).length > 0)
-                .findFirst();
+        return ClassMetadata.of(clazz).getAnnotatedFields(annotationClass).stream().findFirst();
     }
 
     /**
@@ -331,9 +333,7 @@ public class UtilsReflection {
      * @return List of annotated fields
      */
     public static List<Field> getAnnotatedFields(Class<?> clazz, Class<? extends Annotation> annotationClass) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(f -> f.getDeclaredAnnotationsByType(annotationClass).length > 0)
-                .collect(Collectors.toList());
+        return ClassMetadata.of(clazz).getAnnotatedFields(annotationClass);
     }
 
     /**
@@ -344,7 +344,7 @@ public class UtilsReflection {
      * @return List of annotated fields
      */
     public static List<Field> getAnnotatedFields(Class<?> clazz, List<Class<? extends Annotation>> annotationClasses) {
-        return Arrays.stream(clazz.getDeclaredFields())
+        return ClassMetadata.of(clazz).getDeclaredFields().stream()
                 .filter(f -> annotationClasses.stream()
                         .anyMatch(a -> f.getDeclaredAnnotationsByType(a).length > 0))
                 .collect(Collectors.toList());
@@ -357,10 +357,7 @@ public class UtilsReflection {
      * @return List of required fields
      */
     public static List<Field> getNotEmptyNotNull(Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(f -> f.getDeclaredAnnotationsByType(NotNull.class).length > 0
-                        || f.getDeclaredAnnotationsByType(NotEmpty.class).length > 0)
-                .collect(Collectors.toList());
+        return ClassMetadata.of(clazz).getRequiredFields();
     }
 
     /**
@@ -370,33 +367,30 @@ public class UtilsReflection {
      * @return true if there are null required fields
      */
     public static <T> Boolean checkInvalidElements(T entity) {
-        return Arrays.stream(entity.getClass().getDeclaredFields())
-                .filter(f -> f.getDeclaredAnnotationsByType(NotNull.class).length > 0
-                        || f.getDeclaredAnnotationsByType(NotEmpty.class).length > 0)
+        return ClassMetadata.of(entity.getClass()).getRequiredFields().stream()
                 .anyMatch(f -> callGetter(entity, f.getName()) == null);
     }
 
     /**
-     * Finds the name of the field annotated with @Id.
+     * Finds the name of the field annotated with @Id, also in the superclasses.
      *
      * @param entity Entity to analyze
      * @return ID field name, null if not found
      */
     public static <T> String findAndGetIdFieldName(T entity) {
-        Optional<Field> field = UtilsReflection.getFirstAnnotatedField(entity.getClass(), Id.class);
-        return field.map(Field::getName).orElse(null);
+        return ClassMetadata.of(entity.getClass()).getIdField().map(Field::getName).orElse(null);
     }
 
     /**
-     * Finds and returns the value of the field annotated with @Id.
+     * Finds and returns the value of the field annotated with @Id, also in the superclasses.
      *
      * @param entity Entity to analyze
      * @return ID value, null if not found
      */
     @SuppressWarnings("unchecked")
     public static <T, ID extends Serializable> ID findAndGetId(T entity) {
-        Optional<Field> field = UtilsReflection.getFirstAnnotatedField(entity.getClass(), Id.class);
-        return field.map(f -> (ID) UtilsReflection.callGetter(entity, f.getName())).orElse(null);
+        return ClassMetadata.of(entity.getClass()).getIdField()
+                .map(f -> (ID) UtilsReflection.callGetter(entity, f.getName())).orElse(null);
     }
 
     /**
@@ -408,14 +402,7 @@ public class UtilsReflection {
      * @return List of matching fields
      */
     public static List<Field> equalsTargetClassFields(Class<?> clazz, Class<?> targetClass) {
-        return Arrays.stream(clazz.getDeclaredFields()).filter(f -> {
-            Class<?> classToCheck = f.getType();
-            if (f.getType().isAssignableFrom(List.class) || f.getType().isAssignableFrom(Set.class)) {
-                ParameterizedType listType = (ParameterizedType) f.getGenericType();
-                classToCheck = (Class<?>) listType.getActualTypeArguments()[0];
-            }
-            return classToCheck.equals(targetClass);
-        }).collect(Collectors.toList());
+        return ClassMetadata.of(clazz).getFieldsOfType(targetClass);
     }
 
     /**
@@ -426,15 +413,7 @@ public class UtilsReflection {
      * @return List of fields with matching mappedBy
      */
     public static List<Field> equalsTargetClassFieldMappedBy(Class<?> clazz, String fieldName) {
-        return Arrays.stream(clazz.getDeclaredFields()).filter(f -> {
-            OneToOne oneToOne = f.getAnnotation(OneToOne.class);
-            OneToMany oneToMany = f.getAnnotation(OneToMany.class);
-            ManyToMany manyToMany = f.getAnnotation(ManyToMany.class);
-            String mappedBy = oneToOne != null ? oneToOne.mappedBy()
-                    : oneToMany != null ? oneToMany.mappedBy()
-                    : manyToMany != null ? manyToMany.mappedBy() : "";
-            return mappedBy.equals(fieldName);
-        }).collect(Collectors.toList());
+        return ClassMetadata.of(clazz).getRelationFieldsMappedBy(fieldName);
     }
 
     /**
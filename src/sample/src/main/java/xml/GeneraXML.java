@@ -4,7 +4,8 @@ import org.apache.log4j.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+
+import java.util.stream.Stream;
 
 /**
  * Demonstrates XML parsing and generation using the UtilXML base class.
@@ -21,6 +22,7 @@ import org.w3c.dom.NodeList;
  * <pre>
  *   java GeneraXML generate [output_file]     - Generate sample XML
  *   java GeneraXML parse &lt;input_file&gt;         - Parse an XML file
+ *   java GeneraXML stream &lt;input_file&gt;        - Stream the employees of a large XML file
  *   java GeneraXML                            - Run demo (generate to stdout)
  * </pre>
  *
@@ -36,6 +38,23 @@ public class GeneraXML extends UtilXML {
 
     private static final Logger logger = Logger.getLogger(GeneraXML.class);
 
+    // UNILAV values read by parseXML, evaluated in one traversal per DatoreLavoro, Lavoratore
+    // or InizioRapporto element. Steps match with or without a namespace prefix.
+    private static final XMLQueryBatch EMPLOYER_QUERIES = new XMLQueryBatch()
+            .add("legalHQ", "//SedeLegale")
+            .add("legalPhone", "//SedeLegale//telefono")
+            .add("legalFax", "//SedeLegale//fax")
+            .add("workplace", "//SedeLavoro")
+            .add("workPhone", "//SedeLavoro//telefono")
+            .add("workFax", "//SedeLavoro//fax");
+
+    private static final XMLQueryBatch EMPLOYEE_QUERIES = new XMLQueryBatch()
+            .add("personalData", "//AnagraficaCompleta")
+            .add("nationality", "//AnagraficaCompleta//cittadinanza");
+
+    private static final XMLQueryBatch EMPLOYMENT_START_QUERIES = new XMLQueryBatch()
+            .add("startDate", "//dataInizio");
+
     public GeneraXML() {
     }
 
@@ -65,6 +84,14 @@ public class GeneraXML extends UtilXML {
                 }
                 generator.parseXML(args[1]);
             }
+            case "stream" -> {
+                if (args.length < 2) {
+                    System.err.println("Error: stream command requires an input file path");
+                    printUsage();
+                    return;
+                }
+                generator.streamXML(args[1]);
+            }
             case "help", "-h", "--help" -> printUsage();
             default -> {
                 System.err.println("Unknown command: " + command);
@@ -78,6 +105,7 @@ public class GeneraXML extends UtilXML {
         System.out.println("  java GeneraXML                         - Run demo (generate to stdout)");
         System.out.println("  java GeneraXML generate [output_file]  - Generate sample XML");
         System.out.println("  java GeneraXML parse <input_file>      - Parse an XML file");
+        System.out.println("  java GeneraXML stream <input_file>     - Stream the employees of a large XML file");
         System.out.println("  java GeneraXML help                    - Show this help");
     }
 
@@ -113,30 +141,29 @@ public class GeneraXML extends UtilXML {
         Element rootElement = doc.getDocumentElement();
         System.out.println("Root element: " + rootElement.getNodeName());
 
-        // Get namespace prefix (some XML documents use prefixes like "ns:")
-        String prefix = getPrefix(rootElement, ":");
-
-        // Find submission date attribute
-        findAttribute(rootElement, "dataInvio");
+        // Submission date attribute
+        String dataInvio = queryText(rootElement, "@dataInvio");
+        if (dataInvio != null) {
+            System.out.println("dataInvio: " + dataInvio);
+        }
 
-        // Process child elements
-        NodeList childNodes = rootElement.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++) {
-            Node node = childNodes.item(i);
-            if (node.getNodeType() != Node.ELEMENT_NODE) {
+        // Process child elements, each with its own batch so repeated elements report their own values
+        for (Node node = rootElement.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (!(node instanceof Element element)) {
                 continue;
             }
 
-            Element element = (Element) node;
-            String nodeName = node.getNodeName();
+            String nodeName = element.getNodeName();
             System.out.println("\nProcessing element: " + nodeName);
 
-            if (nodeName.equals(prefix + "DatoreLavoro")) {
-                processEmployer(element, prefix);
-            } else if (nodeName.equals(prefix + "Lavoratore")) {
-                processEmployee(element, prefix);
-            } else if (nodeName.equals(prefix + "InizioRapporto")) {
-                processEmploymentStart(element, prefix);
+            // Local name: some XML documents use prefixes like "ns:"
+            switch (nodeName.substring(nodeName.indexOf(':') + 1)) {
+                case "DatoreLavoro" -> processEmployer(queryAll(element, EMPLOYER_QUERIES));
+                case "Lavoratore" -> processEmployee(queryAll(element, EMPLOYEE_QUERIES));
+                case "InizioRapporto" -> processEmploymentStart(queryAll(element, EMPLOYMENT_START_QUERIES));
+                default -> {
+                    // not part of the extracted data
+                }
             }
         }
 
@@ -147,30 +174,25 @@ public class GeneraXML extends UtilXML {
      * Processes the Employer (DatoreLavoro) element.
      * Extracts legal headquarters (SedeLegale) and workplace (SedeLavoro) info.
      */
-    private void processEmployer(Element employer, String prefix) {
+    private void processEmployer(XMLQueryBatch.Result values) {
         System.out.println("  --- Employer Data ---");
 
         // Legal headquarters (SedeLegale) and Workplace (SedeLavoro) are siblings
-        Element legalHQ = getChildElement(employer, prefix + "SedeLegale");
-        if (legalHQ != null) {
+        if (values.element("legalHQ") != null) {
             System.out.println("  Legal Headquarters:");
-            printContactInfo(legalHQ, prefix, "    ");
+            printContactInfo(values.text("legalPhone"), values.text("legalFax"), "    ");
         }
 
-        Element workplace = getChildElement(employer, prefix + "SedeLavoro");
-        if (workplace != null) {
+        if (values.element("workplace") != null) {
             System.out.println("  Workplace:");
-            printContactInfo(workplace, prefix, "    ");
+            printContactInfo(values.text("workPhone"), values.text("workFax"), "    ");
         }
     }
 
     /**
-     * Prints contact information (phone, fax) from an address element.
+     * Prints contact information (phone, fax) of an address element.
      */
-    private void printContactInfo(Element addressElement, String prefix, String indent) {
-        String phone = getChildTextContent(addressElement, prefix + "telefono");
-        String fax = getChildTextContent(addressElement, prefix + "fax");
-
+    private void printContactInfo(String phone, String fax, String indent) {
         if (phone != null) {
             System.out.println(indent + "Phone: " + phone);
         }
@@ -183,12 +205,11 @@ public class GeneraXML extends UtilXML {
      * Processes the Employee (Lavoratore) element.
      * Extracts personal data from AnagraficaCompleta.
      */
-    private void processEmployee(Element employee, String prefix) {
+    private void processEmployee(XMLQueryBatch.Result values) {
         System.out.println("  --- Employee Data ---");
 
-        Element personalData = getChildElement(employee, prefix + "AnagraficaCompleta");
-        if (personalData != null) {
-            String nationality = getChildTextContent(personalData, prefix + "cittadinanza");
+        if (values.element("personalData") != null) {
+            String nationality = values.text("nationality");
             if (nationality != null) {
                 System.out.println("  Nationality: " + nationality);
             }
@@ -199,14 +220,46 @@ public class GeneraXML extends UtilXML {
      * Processes the Employment Start (InizioRapporto) element.
      * Currently logs a placeholder message; extend as needed.
      */
-    private void processEmploymentStart(Element employment, String prefix) {
+    private void processEmploymentStart(XMLQueryBatch.Result values) {
         System.out.println("  --- Employment Start Data ---");
-        String startDate = getChildTextContent(employment, prefix + "dataInizio");
+        String startDate = values.text("startDate");
         if (startDate != null) {
             System.out.println("  Start Date: " + startDate);
         }
     }
 
+    /**
+     * Streams the employees of a document in the format written by {@link #writeXML(String)}.
+     * Unlike {@link #parseXML(String)} no DOM is built: each employee is printed as soon as it is read,
+     * so files of any size are processed in constant memory.
+     *
+     * @param inputFile path to the XML file to stream
+     * @return the number of employees read
+     */
+    public long streamXML(String inputFile) {
+        XMLRecordReader.Mapping<EmployeeData> mapping = XMLRecordReader.mapping("company/employee",
+                        fields -> new EmployeeData(fields.get("id"), fields.get("firstName"),
+                                fields.get("middleName"), fields.get("lastName"), fields.get("email"),
+                                fields.get("department")))
+                .field("id", "@id")
+                .field("firstName", "firstname")
+                .field("middleName", "firstname/middlename")
+                .field("lastName", "lastname")
+                .field("email", "email")
+                .field("department", "department");
+
+        long count = 0;
+        try (Stream<EmployeeData> employees = streamIn(inputFile, mapping)) {
+            for (EmployeeData employee : (Iterable<EmployeeData>) employees::iterator) {
+                System.out.println("Employee " + employee.id() + ": " + employee.lastName()
+                        + " <" + employee.email() + ">, " + employee.department());
+                count++;
+            }
+        }
+        System.out.println("\nStreamed " + count + " employees.");
+        return count;
+    }
+
     // ========================= XML Generation =========================
 
     /**
@@ -7,18 +7,20 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 /**
  * Abstract utility class for XML document manipulation using DOM API.
@@ -27,9 +29,11 @@ import java.io.StringWriter;
  * <p>Subclasses can use the protected methods to:
  * <ul>
  *   <li>Parse XML files into Document objects</li>
+ *   <li>Stream the repeating elements of large XML files as records</li>
  *   <li>Create new XML documents programmatically</li>
  *   <li>Output XML to stdout, files, or strings</li>
  *   <li>Navigate and extract data from XML elements</li>
+ *   <li>Run cached, XPath-like queries, many of them in one traversal</li>
  * </ul>
  */
 public abstract class UtilXML {
@@ -68,18 +72,12 @@ public abstract class UtilXML {
                 return null;
             }
 
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            // Security: Disable external entities to prevent XXE attacks
-            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            doc = builder.parse(xmlFile);
+            // Pooled builder, hardened against XXE attacks once by XMLFactoryPool
+            doc = XMLFactoryPool.documentBuilder().parse(xmlFile);
             doc.getDocumentElement().normalize();
 
             logger.info("Successfully parsed XML: " + inputPath);
-        } catch (ParserConfigurationException e) {
+        } catch (IllegalStateException e) {
             logger.error("XML parser configuration error", e);
         } catch (SAXException e) {
             logger.error("XML parsing error: " + e.getMessage(), e);
@@ -89,6 +87,48 @@ public abstract class UtilXML {
         return doc;
     }
 
+    /**
+     * Streams the repeating elements of an XML file as records, without building a DOM.
+     * Records are read lazily while the stream is consumed; close the stream to close the file.
+     *
+     * @param inputPath path to the XML file
+     * @param mapping   the record and field paths
+     * @return stream of records, empty if the file cannot be opened
+     * @see XMLRecordReader
+     */
+    protected static <T> Stream<T> streamIn(String inputPath, XMLRecordReader.Mapping<T> mapping) {
+        File xmlFile = new File(inputPath);
+        if (!xmlFile.exists()) {
+            logger.error("XML file not found: " + inputPath);
+            return Stream.empty();
+        }
+
+        InputStream input = null;
+        try {
+            input = new BufferedInputStream(Files.newInputStream(Paths.get(inputPath)));
+            XMLRecordReader<T> reader = new XMLRecordReader<>(input, mapping);
+            InputStream source = input;
+            return reader.stream().onClose(() -> {
+                try {
+                    reader.close();
+                    source.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            logger.error("IO error reading XML file: " + inputPath, e);
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            return Stream.empty();
+        }
+    }
+
     // ========================= XML Generation (Output) =========================
 
     /**
@@ -99,10 +139,8 @@ public abstract class UtilXML {
     protected static Document initializeOut() {
         Document doc = null;
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            doc = builder.newDocument();
-        } catch (ParserConfigurationException e) {
+            doc = XMLFactoryPool.documentBuilder().newDocument();
+        } catch (IllegalStateException e) {
             logger.error("Error creating XML document", e);
         }
         return doc;
@@ -138,8 +176,7 @@ public abstract class UtilXML {
      */
     protected static String finalizeOut(Document doc, String outputPath, boolean asString, boolean indent) {
         try {
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
+            Transformer transformer = XMLFactoryPool.transformer();
 
             // Configure pretty printing
             if (indent) {
@@ -169,7 +206,7 @@ public abstract class UtilXML {
                 transformer.transform(domSource, streamResult);
                 logger.info("XML written to: " + outputPath);
             }
-        } catch (TransformerException e) {
+        } catch (TransformerException | IllegalStateException e) {
             logger.error("Error transforming XML document", e);
         }
         return null;
@@ -310,4 +347,41 @@ public abstract class UtilXML {
     protected static boolean hasChildWithContent(Element parent, String tagName) {
         return getChildTextContent(parent, tagName) != null;
     }
+
+    // ========================= Compiled Queries =========================
+
+    /**
+     * Gets the first element selected by an XPath-like expression, compiled once and cached.
+     *
+     * @param context    the element the expression is relative to
+     * @param expression the location path, e.g. "SedeLegale//telefono"
+     * @return the Element, or null if not found
+     * @see XMLQuery
+     */
+    protected static Element queryElement(Element context, String expression) {
+        return XMLQuery.compile(expression).element(context);
+    }
+
+    /**
+     * Gets the text content or attribute value selected by an XPath-like expression.
+     *
+     * @param context    the element the expression is relative to
+     * @param expression the location path, e.g. "Lavoratore//cittadinanza" or "@dataInvio"
+     * @return the trimmed value, or null if not found or empty
+     */
+    protected static String queryText(Element context, String expression) {
+        return XMLQuery.compile(expression).text(context);
+    }
+
+    /**
+     * Runs all the queries of a batch in one traversal. Prefer this over repeated lookups
+     * when a document is checked for many values.
+     *
+     * @param context the element the expressions are relative to
+     * @param queries the named queries, built once
+     * @return the first match of each query
+     */
+    protected static XMLQueryBatch.Result queryAll(Element context, XMLQueryBatch queries) {
+        return queries.evaluate(context);
+    }
 }
@@ -0,0 +1,164 @@
+package xml;
+
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled form of an XPath-like location path, cached by expression.
+ *
+ * <p>Supported syntax, a subset of XPath abbreviated paths evaluated against a context element:
+ * <ul>
+ *   <li>{@code a/b} - child steps</li>
+ *   <li>{@code a//b} or {@code //b} - descendant steps, as in {@link UtilXML#getChildElement}</li>
+ *   <li>{@code *} - any element</li>
+ *   <li>{@code a/@id} or {@code @id} - attribute of the selected element, as the last step</li>
+ * </ul>
+ * A step name matches the element name, or its local part when the element has a namespace prefix,
+ * so "SedeLegale" matches both "SedeLegale" and "ns:SedeLegale". Predicates and functions are not supported.
+ *
+ * <p>A single query is evaluated with {@link #element}, {@link #text} or {@link #attribute};
+ * several queries on the same document are evaluated in one traversal with {@link XMLQueryBatch}.
+ */
+public final class XMLQuery {
+
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, XMLQuery> cache = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final String[] names;
+    private final boolean[] descendant;
+    private final String attribute;
+
+    private XMLQuery(String expression, String[] names, boolean[] descendant, String attribute) {
+        this.expression = expression;
+        this.names = names;
+        this.descendant = descendant;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Returns the compiled query for an expression, compiling it on first use.
+     *
+     * @param expression the location path
+     * @return the compiled query
+     * @throws IllegalArgumentException if the expression is not supported
+     */
+    public static XMLQuery compile(String expression) {
+        XMLQuery query = cache.get(expression);
+        if (query == null) {
+            query = parse(expression);
+            // Expressions are normally constants: the bound only protects against generated ones
+            if (cache.size() < MAX_CACHED) {
+                cache.putIfAbsent(expression, query);
+            }
+        }
+        return query;
+    }
+
+    private static XMLQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Empty XML query");
+        }
+        List<String> names = new ArrayList<>();
+        List<Boolean> descendant = new ArrayList<>();
+        String attribute = null;
+        boolean nextDescendant = false;
+        String[] tokens = expression.trim().split("/", -1);
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i].trim();
+            if (token.isEmpty()) {
+                // "//" between steps, or a leading "//"; a single leading "/" is not supported
+                if (i == tokens.length - 1 || (i == 0 && (tokens.length < 2 || !tokens[1].isEmpty()))) {
+                    throw new IllegalArgumentException("Unsupported XML query: " + expression);
+                }
+                nextDescendant = true;
+                continue;
+            }
+            if (token.startsWith("@")) {
+                if (i != tokens.length - 1 || token.length() == 1 || nextDescendant) {
+                    throw new IllegalArgumentException("Attribute must be the last step: " + expression);
+                }
+                attribute = token.substring(1);
+                continue;
+            }
+            if (!token.equals("*") && !token.matches("[\\w.:-]+")) {
+                throw new IllegalArgumentException("Unsupported step '" + token + "' in XML query: " + expression);
+            }
+            names.add(token);
+            descendant.add(nextDescendant);
+            nextDescendant = false;
+        }
+        boolean[] axes = new boolean[descendant.size()];
+        for (int i = 0; i < axes.length; i++) {
+            axes[i] = descendant.get(i);
+        }
+        return new XMLQuery(expression, names.toArray(new String[0]), axes, attribute);
+    }
+
+    /**
+     * Returns the first selected element in document order, or the context itself for an attribute-only query.
+     *
+     * @return the element, or null if none matches
+     */
+    public Element element(Element context) {
+        return new XMLQueryBatch().add(expression, this).evaluate(context).element(expression);
+    }
+
+    /**
+     * Returns the trimmed text content of the first selected element, or the first attribute value.
+     *
+     * @return the value, or null if nothing matches or the value is empty
+     */
+    public String text(Element context) {
+        return new XMLQueryBatch().add(expression, this).evaluate(context).text(expression);
+    }
+
+    /**
+     * Same as {@link #text}; reads better for attribute queries.
+     */
+    public String attribute(Element context) {
+        return text(context);
+    }
+
+    /**
+     * Returns the number of cached expressions.
+     */
+    public static int getCacheSize() {
+        return cache.size();
+    }
+
+    String getExpression() {
+        return expression;
+    }
+
+    int getStepCount() {
+        return names.length;
+    }
+
+    boolean isDescendant(int step) {
+        return descendant[step];
+    }
+
+    String getAttribute() {
+        return attribute;
+    }
+
+    boolean matches(int step, String nodeName) {
+        String name = names[step];
+        if (name.equals("*") || name.equals(nodeName)) {
+            return true;
+        }
+        int separator = nodeName.indexOf(':');
+        return separator != -1 && name.indexOf(':') == -1 && nodeName.startsWith(name, separator + 1)
+                && nodeName.length() - separator - 1 == name.length();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
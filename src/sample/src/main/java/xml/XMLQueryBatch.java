@@ -0,0 +1,221 @@
+package xml;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named {@link XMLQuery} lookups evaluated together in a single traversal of a document.
+ * The traversal only descends into subtrees where some query can still match, and stops as soon as
+ * every query has its first match, so the cost is one partial walk per document instead of one walk
+ * per lookup. Build the batch once and reuse it: evaluation does not modify it and is thread-safe.
+ *
+ * <p>Example usage:
+ * <pre>
+ * private static final XMLQueryBatch INVOICE = new XMLQueryBatch()
+ *         .add("number", "FatturaElettronicaBody//DatiGeneraliDocumento/Numero")
+ *         .add("vatNumber", "CedentePrestatore//IdCodice")
+ *         .add("version", "@versione");
+ *
+ * XMLQueryBatch.Result result = INVOICE.evaluate(doc.getDocumentElement());
+ * String number = result.text("number");
+ * </pre>
+ */
+public class XMLQueryBatch {
+
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+    private final List<XMLQuery> queries = new ArrayList<>();
+
+    /**
+     * Adds a named query, compiled through the {@link XMLQuery} cache.
+     *
+     * @param name       the name the result is read back with
+     * @param expression the location path
+     * @return this batch
+     */
+    public XMLQueryBatch add(String name, String expression) {
+        return add(name, XMLQuery.compile(expression));
+    }
+
+    /**
+     * Adds a named, already compiled query.
+     */
+    public XMLQueryBatch add(String name, XMLQuery query) {
+        if (indexes.putIfAbsent(name, queries.size()) != null) {
+            throw new IllegalArgumentException("Duplicate query name: " + name);
+        }
+        queries.add(query);
+        return this;
+    }
+
+    /**
+     * Evaluates all queries against a context element, in one traversal of its subtree.
+     *
+     * @param context the element the paths are relative to
+     * @return the first match of each query
+     */
+    public Result evaluate(Element context) {
+        Element[] elements = new Element[queries.size()];
+        String[] values = new String[queries.size()];
+        Traversal traversal = new Traversal(elements, values);
+
+        // State: query index in the high bits, index of the next step to match in the low bits
+        int[] states = new int[queries.size()];
+        int count = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            if (queries.get(q).getStepCount() == 0) {
+                traversal.select(q, context);
+            } else {
+                states[count++] = q << 16;
+            }
+        }
+        if (count > 0 && traversal.pending > 0) {
+            traversal.visitChildren(context, states, count);
+        }
+        return new Result(elements, values);
+    }
+
+    private final class Traversal {
+
+        private final Element[] elements;
+        private final String[] values;
+        private int pending;
+
+        Traversal(Element[] elements, String[] values) {
+            this.elements = elements;
+            this.values = values;
+            this.pending = queries.size();
+        }
+
+        void visitChildren(Element parent, int[] states, int count) {
+            for (Node node = parent.getFirstChild(); node != null && pending > 0; node = node.getNextSibling()) {
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    visit((Element) node, states, count);
+                }
+            }
+        }
+
+        private void visit(Element element, int[] states, int count) {
+            String nodeName = element.getNodeName();
+            int[] next = new int[count * 2];
+            int nextCount = 0;
+            for (int i = 0; i < count; i++) {
+                int q = states[i] >>> 16;
+                int step = states[i] & 0xFFFF;
+                if (elements[q] != null || values[q] != null) {
+                    continue;
+                }
+                XMLQuery query = queries.get(q);
+                // A descendant step may also match deeper down
+                if (query.isDescendant(step)) {
+                    nextCount = addState(next, nextCount, states[i]);
+                }
+                if (query.matches(step, nodeName)) {
+                    if (step + 1 == query.getStepCount()) {
+                        select(q, element);
+                    } else {
+                        nextCount = addState(next, nextCount, (q << 16) | (step + 1));
+                    }
+                }
+            }
+            if (nextCount > 0 && pending > 0) {
+                visitChildren(element, next, nextCount);
+            }
+        }
+
+        // Paths like "a//b//c" can reach the same state twice
+        private int addState(int[] states, int count, int state) {
+            for (int i = 0; i < count; i++) {
+                if (states[i] == state) {
+                    return count;
+                }
+            }
+            states[count] = state;
+            return count + 1;
+        }
+
+        void select(int q, Element element) {
+            String attribute = queries.get(q).getAttribute();
+            if (attribute == null) {
+                elements[q] = element;
+                pending--;
+            } else if (element.hasAttribute(attribute)) {
+                elements[q] = element;
+                values[q] = element.getAttribute(attribute);
+                pending--;
+            }
+        }
+    }
+
+    /**
+     * First match of each query of the batch, by name.
+     */
+    public final class Result {
+
+        private final Element[] elements;
+        private final String[] values;
+
+        private Result(Element[] elements, String[] values) {
+            this.elements = elements;
+            this.values = values;
+        }
+
+        /**
+         * Returns the selected element; for an attribute query, the element carrying the attribute.
+         *
+         * @return the element, or null if the query did not match
+         */
+        public Element element(String name) {
+            return elements[index(name)];
+        }
+
+        /**
+         * Returns the attribute value, or the trimmed text content of the selected element.
+         *
+         * @return the value, or null if the query did not match or the value is empty
+         */
+        public String text(String name) {
+            int index = index(name);
+            String value = queries.get(index).getAttribute() != null ? values[index]
+                    : elements[index] != null ? elements[index].getTextContent() : null;
+            return UtilXML.notNullAndNotEmpty(value) ? value.trim() : null;
+        }
+
+        /**
+         * Checks if the query matched and has non-empty text content or attribute value.
+         */
+        public boolean hasContent(String name) {
+            return text(name) != null;
+        }
+
+        private int index(String name) {
+            Integer index = indexes.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown query: " + name);
+            }
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (String name : indexes.keySet()) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(name).append('=').append(text(name));
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(queries.toArray());
+    }
+}
@@ -0,0 +1,261 @@
+package xml;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pull-based (StAX) reader turning the repeating elements of a large XML document into records.
+ * Only the element path and the fields of the current record are kept in memory, and each record is
+ * returned as soon as its closing tag is read, so feeds of any size are processed in constant memory.
+ *
+ * <p>Elements are matched by local name, so namespace prefixes (e.g. "ns:Lavoratore") are ignored.
+ * The record path is matched against the end of the current element path, or against the whole path
+ * if it starts with "/". Field paths are relative to the record element; a last step starting with "@"
+ * selects an attribute, an empty path an attribute of the record element itself. Text fields hold the
+ * trimmed text content of the first matching element, like {@link UtilXML#getChildTextContent}.
+ *
+ * <p>Example usage:
+ * <pre>
+ * XMLRecordReader.Mapping&lt;Employee&gt; mapping = XMLRecordReader.mapping("company/employee",
+ *                 fields -&gt; new Employee(fields.get("id"), fields.get("email")))
+ *         .field("id", "@id")
+ *         .field("email", "email");
+ * try (XMLRecordReader&lt;Employee&gt; reader = new XMLRecordReader&lt;&gt;(input, mapping)) {
+ *     reader.stream().forEach(System.out::println);
+ * }
+ * </pre>
+ */
+public class XMLRecordReader<T> implements Iterator<T>, AutoCloseable {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final XMLStreamReader reader;
+    private final Mapping<T> mapping;
+
+    // Path of the current element, and the same path relative to the current record
+    private final List<String> path = new ArrayList<>();
+    private final Deque<String> relativePath = new ArrayDeque<>();
+    private final Deque<Capture> captures = new ArrayDeque<>();
+    private int recordDepth = -1;
+    private Map<String, String> fields;
+    private T next;
+    private boolean finished;
+
+    /**
+     * @param input   the XML document, closed by the caller
+     * @param mapping the record and field paths
+     * @throws IOException if the document cannot be read
+     */
+    public XMLRecordReader(InputStream input, Mapping<T> mapping) throws IOException {
+        this.mapping = mapping;
+        try {
+            this.reader = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot open XML stream", e);
+        }
+    }
+
+    /**
+     * Starts a mapping for the repeating elements at {@code recordPath}.
+     *
+     * @param recordPath slash-separated element path, e.g. "company/employee"
+     * @param factory    builds a record from the field values, keyed by field name
+     */
+    public static <T> Mapping<T> mapping(String recordPath, Function<Map<String, String>, T> factory) {
+        return new Mapping<>(recordPath, factory);
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Security: same hardening as UtilXML.initializeIn, no DTDs and no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = readNext();
+            } catch (XMLStreamException e) {
+                throw new UncheckedIOException(new IOException("XML parsing error: " + e.getMessage(), e));
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T record = next;
+        next = null;
+        return record;
+    }
+
+    /**
+     * Returns the remaining records as a sequential stream.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Error closing XML stream", e);
+        }
+    }
+
+    private T readNext() throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> startElement();
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                    for (Capture capture : captures) {
+                        capture.text().append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    T record = endElement();
+                    if (record != null) {
+                        return record;
+                    }
+                }
+                default -> {
+                    // Comments, processing instructions and whitespace outside records are ignored
+                }
+            }
+        }
+        finished = true;
+        return null;
+    }
+
+    private void startElement() {
+        String name = reader.getLocalName();
+        path.add(name);
+        if (recordDepth < 0) {
+            if (!mapping.matchesRecord(path)) {
+                return;
+            }
+            recordDepth = path.size();
+            fields = new HashMap<>();
+            relativePath.push("");
+        } else {
+            String parent = relativePath.peek();
+            relativePath.push(parent.isEmpty() ? name : parent + "/" + name);
+        }
+
+        String relative = relativePath.peek();
+        Map<String, String> attributes = mapping.attributeFields.getOrDefault(relative, Collections.emptyMap());
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            String value = reader.getAttributeValue(null, attribute.getKey());
+            if (UtilXML.notNullAndNotEmpty(value)) {
+                fields.putIfAbsent(attribute.getValue(), value);
+            }
+        }
+        String textField = mapping.textFields.get(relative);
+        if (textField != null && !fields.containsKey(textField)) {
+            captures.push(new Capture(textField, path.size(), new StringBuilder()));
+        }
+    }
+
+    private T endElement() {
+        T record = null;
+        if (recordDepth >= 0) {
+            Capture capture = captures.peek();
+            if (capture != null && capture.depth() == path.size()) {
+                captures.pop();
+                String text = capture.text().toString().trim();
+                if (!text.isEmpty()) {
+                    fields.putIfAbsent(capture.field(), text);
+                }
+            }
+            relativePath.pop();
+            if (path.size() == recordDepth) {
+                record = mapping.factory.apply(Collections.unmodifiableMap(fields));
+                recordDepth = -1;
+                fields = null;
+            }
+        }
+        path.remove(path.size() - 1);
+        return record;
+    }
+
+    private record Capture(String field, int depth, StringBuilder text) {
+    }
+
+    /**
+     * Declarative mapping from element paths to record fields. Immutable once handed to a reader.
+     */
+    public static final class Mapping<T> {
+
+        private final String[] recordPath;
+        private final boolean absolute;
+        private final Function<Map<String, String>, T> factory;
+        private final Map<String, String> textFields = new HashMap<>();
+        private final Map<String, Map<String, String>> attributeFields = new HashMap<>();
+
+        private Mapping(String recordPath, Function<Map<String, String>, T> factory) {
+            this.absolute = recordPath.startsWith("/");
+            this.recordPath = (absolute ? recordPath.substring(1) : recordPath).split("/");
+            this.factory = factory;
+        }
+
+        /**
+         * Maps a field to an element or attribute under the record element.
+         *
+         * @param name the field name passed to the record factory
+         * @param path relative path, e.g. "email", "SedeLegale/telefono", "@id" or "firstname/@preferred"
+         */
+        public Mapping<T> field(String name, String path) {
+            int at = path.lastIndexOf('@');
+            if (at >= 0) {
+                String element = at == 0 ? "" : path.substring(0, at - 1);
+                attributeFields.computeIfAbsent(element, key -> new LinkedHashMap<>()).put(path.substring(at + 1), name);
+            } else {
+                textFields.put(path, name);
+            }
+            return this;
+        }
+
+        private boolean matchesRecord(List<String> elements) {
+            int offset = elements.size() - recordPath.length;
+            if (offset < 0 || (absolute && offset != 0)) {
+                return false;
+            }
+            for (int i = 0; i < recordPath.length; i++) {
+                if (!recordPath[i].equals(elements.get(offset + i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package xml;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming (StAX) alternative to building a DOM with {@link UtilXML#initializeOut()} and serializing it with
+ * {@link UtilXML#finalizeOut}. Elements are written to a buffered file channel as they are created, so memory
+ * use does not depend on the document size.
+ *
+ * <p>The vocabulary follows UtilXML, with the constraints of a forward-only writer:
+ * {@link #createChild} opens an element under the current one and {@link #closeChild()} closes it;
+ * {@link #setAttribute} applies to the element opened last and must come before its children.
+ * {@link #close()} closes any element still open and the file.
+ *
+ * <p>Example usage:
+ * <pre>
+ * try (XMLStreamBuilder xml = XMLStreamBuilder.open(Paths.get("company.xml.gz"), true, true)) {
+ *     xml.createRoot("company");
+ *     xml.createChild("employee", null).setAttribute("id", "1");
+ *     xml.createLeaf("lastname", "Harley");
+ *     xml.closeChild();
+ * }
+ * </pre>
+ */
+public class XMLStreamBuilder implements AutoCloseable {
+
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String ENCODING = "UTF-8";
+    private static final int INDENT_AMOUNT = 2;
+    private static final char[] NEW_LINE = ("\n" + " ".repeat(64 * INDENT_AMOUNT)).toCharArray();
+
+    private final OutputStream output;
+    private final XMLStreamWriter writer;
+    private final boolean indent;
+
+    // Elements with child elements, by depth: their end tag goes on its own line when indenting
+    private final BitSet hasChildren = new BitSet();
+    private int depth;
+    private boolean startTagOpen;
+    private String pendingText;
+
+    /**
+     * @param output the destination, closed with the builder
+     * @param indent if true, formats output with indentation
+     */
+    public XMLStreamBuilder(OutputStream output, boolean indent) {
+        this.output = output;
+        this.indent = indent;
+        try {
+            this.writer = FACTORY.createXMLStreamWriter(output, ENCODING);
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException("Cannot create XML writer", e));
+        }
+    }
+
+    /**
+     * Opens a builder writing to a file through a buffered channel, creating directories if needed.
+     *
+     * @param outputPath the file to write, overwritten if it exists
+     * @param indent     if true, formats output with indentation
+     * @param gzip       if true, compresses the output with GZIP
+     * @return the builder, to be closed by the caller
+     * @throws IOException if the file cannot be opened
+     */
+    public static XMLStreamBuilder open(Path outputPath, boolean indent, boolean gzip) throws IOException {
+        if (outputPath.getParent() != null) {
+            Files.createDirectories(outputPath.getParent());
+        }
+        FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream output = Channels.newOutputStream(channel);
+        output = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+        return new XMLStreamBuilder(new BufferedOutputStream(output, BUFFER_SIZE), indent);
+    }
+
+    /**
+     * Writes the XML declaration and opens the root element.
+     *
+     * @param name the root element name
+     * @return this builder
+     */
+    public XMLStreamBuilder createRoot(String name) {
+        if (depth > 0) {
+            throw new IllegalStateException("Root element already created");
+        }
+        try {
+            writer.writeStartDocument(ENCODING, "1.0");
+        } catch (XMLStreamException e) {
+            throw writeError(e);
+        }
+        return createChild(name, null);
+    }
+
+    /**
+     * Opens a child element under the current element.
+     * Optionally writes a text node with the specified content, after any attribute set next.
+     *
+     * @param name        the child element name
+     * @param textContent text content for the element (null for empty element)
+     * @return this builder
+     */
+    public XMLStreamBuilder createChild(String name, String textContent) {
+        try {
+            writePending();
+            if (depth > 0) {
+                hasChildren.set(depth);
+            }
+            newLine(depth);
+            writer.writeStartElement(name);
+            depth++;
+            hasChildren.clear(depth);
+            startTagOpen = true;
+            pendingText = textContent;
+        } catch (XMLStreamException e) {
+            throw writeError(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a complete child element with text content, like {@link UtilXML#createChild} for a leaf.
+     *
+     * @param name        the child element name
+     * @param textContent text content for the element (null for empty element)
+     * @return this builder
+     */
+    public XMLStreamBuilder createLeaf(String name, String textContent) {
+        return createChild(name, textContent).closeChild();
+    }
+
+    /**
+     * Sets an attribute on the element opened last.
+     *
+     * @param attribute the attribute name
+     * @param value     the attribute value
+     * @return this builder
+     * @throws IllegalStateException if the element already has content
+     */
+    public XMLStreamBuilder setAttribute(String attribute, String value) {
+        if (!startTagOpen) {
+            throw new IllegalStateException("Attribute " + attribute + " must be set before the element content");
+        }
+        try {
+            writer.writeAttribute(attribute, value);
+        } catch (XMLStreamException e) {
+            throw writeError(e);
+        }
+        return this;
+    }
+
+    /**
+     * Closes the current element.
+     *
+     * @return this builder
+     */
+    public XMLStreamBuilder closeChild() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open element");
+        }
+        try {
+            writePending();
+            if (hasChildren.get(depth)) {
+                newLine(depth - 1);
+            }
+            writer.writeEndElement();
+            depth--;
+        } catch (XMLStreamException e) {
+            throw writeError(e);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of elements currently open, the root included.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Closes the elements still open, ends the document and closes the output.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            while (depth > 0) {
+                closeChild();
+            }
+            writer.writeEndDocument();
+            if (indent) {
+                writer.writeCharacters("\n");
+            }
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Error finishing XML document", e);
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writePending() throws XMLStreamException {
+        startTagOpen = false;
+        if (pendingText != null) {
+            writer.writeCharacters(pendingText);
+            pendingText = null;
+        }
+    }
+
+    private void newLine(int level) throws XMLStreamException {
+        if (indent) {
+            writer.writeCharacters(NEW_LINE, 0, 1 + Math.min(level * INDENT_AMOUNT, NEW_LINE.length - 1));
+        }
+    }
+
+    private static UncheckedIOException writeError(XMLStreamException e) {
+        return new UncheckedIOException(new IOException("XML writing error: " + e.getMessage(), e));
+    }
+}
@@ -0,0 +1,101 @@
+package xml;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Time and peak heap of writing a large document: DOM built with {@link UtilXML#createChild} and serialized
+ * by {@link UtilXML#finalizeOut}, versus {@link XMLStreamBuilder} (plain and GZIP).
+ * Each employee has one attribute and four leaf elements, so 200,000 employees are 1M elements.
+ * Run with a large heap (e.g. -Xmx4g) so that the DOM variant completes.
+ *
+ * <p>Usage: {@code java xml.XMLWriteBenchmark [employees]}
+ */
+public class XMLWriteBenchmark extends UtilXML {
+
+    private static final int DEFAULT_EMPLOYEES = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EMPLOYEES;
+        System.out.println("=== XML write benchmark (" + employees * 5 + " elements) ===");
+        report("DOM + Transformer", employees, Mode.DOM);
+        report("XMLStreamBuilder", employees, Mode.STREAM);
+        report("XMLStreamBuilder gzip", employees, Mode.STREAM_GZIP);
+    }
+
+    private enum Mode {
+        DOM, STREAM, STREAM_GZIP
+    }
+
+    private static void report(String label, int employees, Mode mode) throws IOException {
+        File file = File.createTempFile("xml-benchmark", mode == Mode.STREAM_GZIP ? ".xml.gz" : ".xml");
+        try {
+            System.gc();
+            resetPeaks();
+            long start = System.nanoTime();
+            switch (mode) {
+                case DOM -> writeDom(file, employees);
+                case STREAM -> writeStream(file, employees, false);
+                case STREAM_GZIP -> writeStream(file, employees, true);
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-22s %6d ms  peak heap %8.1f MB  file %8.1f MB%n",
+                    label, elapsed, peakHeap() / 1048576d, file.length() / 1048576d);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void writeDom(File file, int employees) {
+        Document doc = initializeOut();
+        Element root = createRoot(doc, "company");
+        for (int i = 1; i <= employees; i++) {
+            Element employee = createChild(doc, root, "employee", null);
+            setAttribute(doc, employee, "id", String.valueOf(i));
+            createChild(doc, employee, "firstname", "Name " + i);
+            createChild(doc, employee, "lastname", "Surname " + i);
+            createChild(doc, employee, "email", "employee" + i + "@example.org");
+            createChild(doc, employee, "department", "Department " + (i % 20));
+        }
+        finalizeOut(doc, file.getPath(), false);
+    }
+
+    private static void writeStream(File file, int employees, boolean gzip) throws IOException {
+        try (XMLStreamBuilder xml = XMLStreamBuilder.open(file.toPath(), true, gzip)) {
+            xml.createRoot("company");
+            for (int i = 1; i <= employees; i++) {
+                xml.createChild("employee", null).setAttribute("id", String.valueOf(i));
+                xml.createLeaf("firstname", "Name " + i);
+                xml.createLeaf("lastname", "Surname " + i);
+                xml.createLeaf("email", "employee" + i + "@example.org");
+                xml.createLeaf("department", "Department " + (i % 20));
+                xml.closeChild();
+            }
+        }
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Sum of the per-pool peaks: an upper bound of the actual peak, good enough to compare the modes
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}